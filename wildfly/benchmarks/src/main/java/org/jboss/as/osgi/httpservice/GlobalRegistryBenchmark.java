@@ -0,0 +1,123 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.osgi.httpservice;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.Servlet;
+import javax.servlet.http.HttpServlet;
+
+import org.jboss.as.osgi.httpservice.HttpServiceFactory.GlobalRegistry;
+import org.jboss.as.osgi.httpservice.HttpServiceFactory.Registration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.osgi.framework.Bundle;
+import org.osgi.service.http.NamespaceException;
+
+/**
+ * Benchmarks the lookups in the global alias registry of the HttpService.
+ *
+ * Uses the package-private {@code HttpServiceFactory.GlobalRegistry} from the same package.
+ *
+ * @since 17-Oct-2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+@Threads(4)
+public class GlobalRegistryBenchmark {
+
+    @Param({ "100", "2000" })
+    private int aliasCount;
+
+    private Bundle bundle;
+    private String[] aliases;
+    private Servlet[] servlets;
+
+    @Setup(Level.Trial)
+    public void setUp() throws NamespaceException {
+        bundle = (Bundle) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { Bundle.class }, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                if ("hashCode".equals(method.getName())) {
+                    return System.identityHashCode(proxy);
+                } else if ("equals".equals(method.getName())) {
+                    return proxy == args[0];
+                }
+                return null;
+            }
+        });
+        aliases = new String[aliasCount];
+        servlets = new Servlet[aliasCount];
+        for (int i = 0; i < aliasCount; i++) {
+            aliases[i] = "/benchmark/alias" + i;
+            servlets[i] = new HttpServlet() {
+                private static final long serialVersionUID = 1L;
+            };
+            GlobalRegistry.INSTANCE.register(aliases[i], bundle, null, servlets[i], Registration.Type.SERVLET);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        GlobalRegistry.INSTANCE.unregister(bundle);
+    }
+
+    @Benchmark
+    public boolean exists(ThreadIndex threadIndex) {
+        return GlobalRegistry.INSTANCE.exists(aliases[threadIndex.next(aliasCount)]);
+    }
+
+    @Benchmark
+    public boolean contains(ThreadIndex threadIndex) {
+        return GlobalRegistry.INSTANCE.contains(servlets[threadIndex.next(aliasCount)]);
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadIndex {
+        private int index;
+
+        int next(int count) {
+            index = (index + 1) % count;
+            return index;
+        }
+    }
+}
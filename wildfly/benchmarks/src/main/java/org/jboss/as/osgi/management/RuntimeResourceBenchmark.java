@@ -0,0 +1,147 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.osgi.management;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.osgi.parser.ModelConstants;
+import org.jboss.osgi.framework.spi.BundleManager;
+import org.jboss.osgi.resolver.XBundle;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
+
+/**
+ * Benchmarks the runtime bundle resources over large bundle sets.
+ *
+ * The framework is replaced by dynamic proxies that return a fixed set of bundles.
+ *
+ * @since 17-Oct-2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RuntimeResourceBenchmark {
+
+    @Param({ "100", "2000" })
+    private int bundleCount;
+
+    private OSGiRuntimeResource resource;
+    private PathElement lastBundle;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final Bundle[] bundles = new Bundle[bundleCount];
+        for (int i = 0; i < bundleCount; i++) {
+            bundles[i] = createBundle(i);
+        }
+        final BundleContext context = createProxy(BundleContext.class, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                return "getBundles".equals(method.getName()) ? bundles.clone() : null;
+            }
+        });
+        final XBundle systemBundle = createProxy(XBundle.class, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                return "getBundleContext".equals(method.getName()) ? context : null;
+            }
+        });
+        BundleManager bundleManager = createProxy(BundleManager.class, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                String name = method.getName();
+                if ("getSystemBundle".equals(name)) {
+                    return systemBundle;
+                } else if ("getBundleById".equals(name)) {
+                    long bundleId = (Long) args[0];
+                    return bundleId < bundles.length ? bundles[(int) bundleId] : null;
+                }
+                return null;
+            }
+        });
+        resource = new OSGiRuntimeResource();
+        resource.getInjectedBundleManager().inject(bundleManager);
+        lastBundle = PathElement.pathElement(ModelConstants.BUNDLE, Integer.toString(bundleCount - 1));
+    }
+
+    @Benchmark
+    public Set<String> getChildrenNames() {
+        return resource.getChildrenNames(ModelConstants.BUNDLE);
+    }
+
+    @Benchmark
+    public Set<?> getChildren() {
+        return resource.getChildren(ModelConstants.BUNDLE);
+    }
+
+    @Benchmark
+    public boolean hasChild() {
+        return resource.hasChild(lastBundle);
+    }
+
+    private static Bundle createBundle(final long bundleId) {
+        return createProxy(XBundle.class, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                String name = method.getName();
+                if ("getBundleId".equals(name)) {
+                    return bundleId;
+                } else if ("getState".equals(name)) {
+                    return Bundle.ACTIVE;
+                } else if ("getSymbolicName".equals(name)) {
+                    return "org.jboss.benchmark.bundle" + bundleId;
+                } else if ("hashCode".equals(name)) {
+                    return (int) bundleId;
+                } else if ("equals".equals(name)) {
+                    return proxy == args[0];
+                }
+                return null;
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T createProxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(RuntimeResourceBenchmark.class.getClassLoader(), new Class<?>[] { type }, handler);
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.osgi.service;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.modules.ModuleIdentifier;
+import org.jboss.osgi.resolver.XRequirementBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.osgi.resource.Capability;
+import org.osgi.resource.Requirement;
+
+/**
+ * Benchmarks the lookups in the layered bundles hierarchy.
+ *
+ * Uses the package-private {@code ModuleIdentityRepositoryIntegration(File, File)} constructor
+ * and the public {@link LayeredBundlePathFactory}.
+ *
+ * @since 17-Oct-2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BundleHierarchyBenchmark {
+
+    @Param({ "100", "2000" })
+    private int bundleCount;
+
+    private File bundlesDir;
+    private ModuleIdentifier[] moduleIds;
+    private Requirement[] requirements;
+    private ModuleIdentityRepositoryIntegration repository;
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        File rootDir = SyntheticBundleTree.createTempDir("jbosgi-benchmark");
+        bundlesDir = new File(rootDir, "bundles");
+        moduleIds = SyntheticBundleTree.createBundles(bundlesDir, bundleCount, "top", "base");
+        new File(rootDir, "modules").mkdirs();
+        repository = new ModuleIdentityRepositoryIntegration(bundlesDir, new File(rootDir, "data"));
+        requirements = new Requirement[moduleIds.length];
+        for (int i = 0; i < moduleIds.length; i++) {
+            requirements[i] = XRequirementBuilder.create(moduleIds[i]).getRequirement();
+        }
+    }
+
+    @Benchmark
+    public List<File> resolveLayeredBundlePath() {
+        return LayeredBundlePathFactory.resolveLayeredBundlePath(bundlesDir);
+    }
+
+    @Benchmark
+    public File getRepositoryEntry() {
+        return repository.getRepositoryEntry(nextModuleId());
+    }
+
+    @Benchmark
+    public File getRepositoryEntryMiss() {
+        return repository.getRepositoryEntry(ModuleIdentifier.create("org.jboss.benchmark.missing"));
+    }
+
+    @Benchmark
+    public Collection<Capability> findProviders() {
+        return repository.findProviders(requirements[nextIndex()]);
+    }
+
+    private ModuleIdentifier nextModuleId() {
+        return moduleIds[nextIndex()];
+    }
+
+    private int nextIndex() {
+        index = (index + 1) % moduleIds.length;
+        return index;
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.osgi.service;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.osgi.deployment.deployer.Deployment;
+import org.jboss.osgi.deployment.deployer.DeploymentFactory;
+import org.jboss.osgi.vfs.AbstractVFS;
+import org.jboss.osgi.vfs.VirtualFile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.osgi.framework.Version;
+
+/**
+ * Benchmarks the mapping of bundle locations to deployment runtime names.
+ *
+ * Uses the package-private {@link BundleLifecycleIntegration#createRuntimeName(org.jboss.osgi.deployment.deployer.Deployment)} seam.
+ *
+ * @since 17-Oct-2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RuntimeNameBenchmark {
+
+    private Deployment plainDeployment;
+    private Deployment queryDeployment;
+    private Deployment opaqueDeployment;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        File jarFile = new File(SyntheticBundleTree.createTempDir("jbosgi-benchmark"), "bundle.jar");
+        SyntheticBundleTree.createBundleJar(jarFile, "org.jboss.benchmark.bundle");
+        VirtualFile rootFile = AbstractVFS.toVirtualFile(jarFile.toURI().toURL());
+        Version version = Version.parseVersion("1.0.0");
+        plainDeployment = DeploymentFactory.createDeployment(rootFile, "file:/opt/bundles/bundle.jar", "org.jboss.benchmark.bundle", version);
+        queryDeployment = DeploymentFactory.createDeployment(rootFile, "webbundle:file:/opt/bundles/bundle.war?Web-ContextPath=/bundle&Bundle-SymbolicName=org.jboss.benchmark.bundle", "org.jboss.benchmark.bundle", version);
+        opaqueDeployment = DeploymentFactory.createDeployment(rootFile, "bundle with spaces.jar", "org.jboss.benchmark.bundle", version);
+    }
+
+    @Benchmark
+    public String plainLocation() {
+        return BundleLifecycleIntegration.createRuntimeName(plainDeployment);
+    }
+
+    @Benchmark
+    public String queryLocation() {
+        return BundleLifecycleIntegration.createRuntimeName(queryDeployment);
+    }
+
+    @Benchmark
+    public String invalidURILocation() {
+        return BundleLifecycleIntegration.createRuntimeName(opaqueDeployment);
+    }
+}
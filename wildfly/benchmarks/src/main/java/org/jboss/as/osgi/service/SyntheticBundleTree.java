@@ -0,0 +1,107 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.osgi.service;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.jar.Attributes;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+import org.jboss.modules.ModuleIdentifier;
+
+/**
+ * Generates synthetic bundle and module hierarchies on local disk.
+ *
+ * @since 17-Oct-2026
+ */
+public final class SyntheticBundleTree {
+
+    // Hide ctor
+    private SyntheticBundleTree() {
+    }
+
+    /**
+     * Create a temporary directory that is deleted on exit.
+     */
+    public static File createTempDir(String prefix) throws IOException {
+        File dir = File.createTempFile(prefix, "");
+        if (!dir.delete() || !dir.mkdirs())
+            throw new IOException("Cannot create: " + dir);
+        dir.deleteOnExit();
+        return dir;
+    }
+
+    /**
+     * Create a layered bundles hierarchy with the given number of bundles.
+     *
+     * The bundles are distributed over the given layers, the first layer has the highest precedence.
+     * Every bundle is a jar with a minimal OSGi manifest.
+     *
+     * @return the identifiers of the created bundles
+     */
+    public static ModuleIdentifier[] createBundles(File bundlesDir, int count, String... layers) throws IOException {
+        ModuleIdentifier[] result = new ModuleIdentifier[count];
+        for (int i = 0; i < count; i++) {
+            String name = "org.jboss.benchmark.group" + (i % 20) + ".bundle" + i;
+            ModuleIdentifier moduleId = ModuleIdentifier.create(name);
+            String layer = layers[i % layers.length];
+            File moduleDir = new File(bundlesDir, "system/layers/" + layer + "/" + name.replace('.', '/') + "/main");
+            createBundleJar(new File(moduleDir, "bundle" + i + ".jar"), name);
+            result[i] = moduleId;
+        }
+        StringBuilder layersConf = new StringBuilder("layers=");
+        for (int i = 0; i < layers.length; i++) {
+            if (!"base".equals(layers[i])) {
+                layersConf.append(layersConf.length() > 7 ? "," : "").append(layers[i]);
+            }
+        }
+        FileWriter writer = new FileWriter(new File(bundlesDir, "layers.conf"));
+        try {
+            writer.write(layersConf.append("\n").toString());
+        } finally {
+            writer.close();
+        }
+        return result;
+    }
+
+    /**
+     * Create a bundle jar with the given symbolic name.
+     */
+    public static void createBundleJar(File jarFile, String symbolicName) throws IOException {
+        File parentDir = jarFile.getParentFile();
+        if (!parentDir.isDirectory() && !parentDir.mkdirs())
+            throw new IOException("Cannot create: " + parentDir);
+
+        Manifest manifest = new Manifest();
+        Attributes attributes = manifest.getMainAttributes();
+        attributes.put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        attributes.putValue("Bundle-ManifestVersion", "2");
+        attributes.putValue("Bundle-SymbolicName", symbolicName);
+        attributes.putValue("Bundle-Version", "1.0.0");
+        JarOutputStream output = new JarOutputStream(new FileOutputStream(jarFile), manifest);
+        output.close();
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.osgi.web;
+
+import java.util.concurrent.TimeUnit;
+import java.util.jar.Manifest;
+
+import org.jboss.osgi.metadata.OSGiMetaData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the parsing of webbundle URIs.
+ *
+ * @since 17-Oct-2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class WebBundleURIParserBenchmark {
+
+    private final String queryLocation = "webbundle:file:/opt/bundles/example.war?Bundle-SymbolicName=org.jboss.benchmark.example&Web-ContextPath=/example";
+    private final String plainLocation = "webbundle://example.war";
+    private final String bundleLocation = "file:/opt/bundles/example.jar";
+
+    @Benchmark
+    public Manifest parseQueryLocation() {
+        return WebBundleURIParser.parse(queryLocation);
+    }
+
+    @Benchmark
+    public Manifest parsePlainLocation() {
+        return WebBundleURIParser.parse(plainLocation);
+    }
+
+    @Benchmark
+    public OSGiMetaData parseQueryLocationMetaData() {
+        return WebBundleURIParser.parseMetaData(queryLocation);
+    }
+
+    @Benchmark
+    public Manifest parseBundleLocation() {
+        return WebBundleURIParser.parse(bundleLocation);
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.osgi.httpservice;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A longest-prefix index of HttpService aliases.
+ *
+ * Aliases are split into path segments, so that an alias only matches on a segment boundary.
+ * Lookups do not lock, modifications are serialized.
+ *
+ * @since 17-Oct-2026
+ */
+final class AliasTrie<T> {
+
+    private final Node<T> root = new Node<T>();
+    private volatile int size;
+
+    /**
+     * Get the entry with the longest alias that is a prefix of the given path or null.
+     */
+    Entry<T> lookup(String path) {
+        Node<T> node = root;
+        Entry<T> result = node.entry;
+        int start = 1;
+        while (start <= path.length()) {
+            int end = path.indexOf('/', start);
+            if (end < 0) {
+                end = path.length();
+            }
+            node = node.children.get(path.substring(start, end));
+            if (node == null) {
+                break;
+            }
+            if (node.entry != null) {
+                result = node.entry;
+            }
+            start = end + 1;
+        }
+        return result;
+    }
+
+    T get(String alias) {
+        Node<T> node = getNode(alias, false);
+        Entry<T> entry = node != null ? node.entry : null;
+        return entry != null ? entry.value : null;
+    }
+
+    synchronized T put(String alias, T value) {
+        Node<T> node = getNode(alias, true);
+        Entry<T> previous = node.entry;
+        node.entry = new Entry<T>(alias, value);
+        if (previous == null) {
+            size++;
+            return null;
+        }
+        return previous.value;
+    }
+
+    synchronized T putIfAbsent(String alias, T value) {
+        Node<T> node = getNode(alias, true);
+        Entry<T> previous = node.entry;
+        if (previous != null) {
+            return previous.value;
+        }
+        node.entry = new Entry<T>(alias, value);
+        size++;
+        return null;
+    }
+
+    synchronized T remove(String alias) {
+        Node<T> node = getNode(alias, false);
+        Entry<T> previous = node != null ? node.entry : null;
+        if (previous == null) {
+            return null;
+        }
+        removeEntry(alias, node);
+        return previous.value;
+    }
+
+    /**
+     * Remove the entry for the given alias if it maps to the given value.
+     */
+    synchronized boolean remove(String alias, T value) {
+        Node<T> node = getNode(alias, false);
+        Entry<T> previous = node != null ? node.entry : null;
+        if (previous == null || previous.value != value) {
+            return false;
+        }
+        removeEntry(alias, node);
+        return true;
+    }
+
+    // Clear the entry and prune the nodes that neither hold an entry nor lead to one
+    private void removeEntry(String alias, Node<T> node) {
+        node.entry = null;
+        size--;
+        while (alias.length() > 1 && node.entry == null && node.children.isEmpty()) {
+            int index = alias.lastIndexOf('/');
+            String parentAlias = index > 0 ? alias.substring(0, index) : "/";
+            Node<T> parent = getNode(parentAlias, false);
+            parent.children.remove(alias.substring(index + 1), node);
+            alias = parentAlias;
+            node = parent;
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    private Node<T> getNode(String alias, boolean create) {
+        Node<T> node = root;
+        if (alias.length() > 1) {
+            for (String segment : alias.substring(1).split("/")) {
+                Node<T> child = node.children.get(segment);
+                if (child == null) {
+                    if (!create) {
+                        return null;
+                    }
+                    child = new Node<T>();
+                    node.children.put(segment, child);
+                }
+                node = child;
+            }
+        }
+        return node;
+    }
+
+    static final class Entry<T> {
+        private final String alias;
+        private final T value;
+
+        Entry(String alias, T value) {
+            this.alias = alias;
+            this.value = value;
+        }
+
+        String getAlias() {
+            return alias;
+        }
+
+        T getValue() {
+            return value;
+        }
+    }
+
+    private static final class Node<T> {
+        private final ConcurrentMap<String, Node<T>> children = new ConcurrentHashMap<String, Node<T>>();
+        private volatile Entry<T> entry;
+    }
+}
@@ -45,6 +45,17 @@ final class DefaultServletConfig implements ServletConfig {
         this.servletContext = servletContext;
     }
 
+    DefaultServletConfig(String servletName, ServletContext servletContext, Dictionary<?, ?> initParams) {
+        this(servletName, servletContext);
+        if (initParams != null) {
+            Enumeration<?> keys = initParams.keys();
+            while (keys.hasMoreElements()) {
+                String key = (String) keys.nextElement();
+                this.initParams.put(key, (String) initParams.get(key));
+            }
+        }
+    }
+
     @Override
     public String getServletName() {
         return servletName;
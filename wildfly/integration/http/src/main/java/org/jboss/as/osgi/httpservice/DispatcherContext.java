@@ -0,0 +1,284 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.osgi.httpservice;
+
+import static org.jboss.as.osgi.httpservice.WebLogger.WEB_LOGGER;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.Servlet;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+
+import org.jboss.as.osgi.OSGiMessages;
+import org.jboss.as.osgi.httpservice.AliasTrie.Entry;
+import org.jboss.as.web.host.ServletBuilder;
+import org.jboss.as.web.host.WebDeploymentBuilder;
+import org.jboss.as.web.host.WebDeploymentController;
+import org.jboss.as.web.host.WebHost;
+import org.osgi.service.http.NamespaceException;
+
+/**
+ * A single web context that dispatches to all HttpService registrations.
+ *
+ * Instead of a web deployment per alias, the registered servlets are held in an {@link AliasTrie}
+ * and requests to the context are routed to the servlet with the longest matching alias.
+ * The web deployment is created with the first registration and lives until the HttpService goes away.
+ *
+ * In lazy mode registered servlets are routed immediately, but only initialized by their first request.
+ * Servlets that did not see a request yet are initialized by a warm-up thread while the dispatcher is idle.
+ *
+ * @since 17-Oct-2026
+ */
+final class DispatcherContext {
+
+    /** The framework property that enables the dispatcher and defines its context root */
+    static final String PROPERTY_DISPATCHER_CONTEXT_ROOT = "org.jboss.osgi.httpservice.dispatcher.context";
+    /** The framework property that defers servlet initialization to the first request */
+    static final String PROPERTY_DISPATCHER_LAZY = "org.jboss.osgi.httpservice.dispatcher.lazy";
+
+    /** The time in milliseconds without requests after which the warm-up initializes pending servlets */
+    static final long WARMUP_IDLE_TIME = 5000;
+    static final long WARMUP_INTERVAL = 1000;
+
+    private final WebHost virtualHost;
+    private final String contextRoot;
+    private final File storageDir;
+    private final boolean lazy;
+    private final Queue<LazyServlet> pendingServlets = new ConcurrentLinkedQueue<LazyServlet>();
+    private volatile long lastRequestTime;
+    private ScheduledExecutorService warmupExecutor;
+    private final AliasTrie<Servlet> servlets = new AliasTrie<Servlet>();
+    private final DispatcherServlet dispatcherServlet = new DispatcherServlet();
+    private WebDeploymentController deploymentController;
+
+    DispatcherContext(WebHost virtualHost, String contextRoot, File storageDir, boolean lazy) {
+        this.virtualHost = virtualHost;
+        this.contextRoot = contextRoot;
+        this.storageDir = storageDir;
+        this.lazy = lazy;
+    }
+
+    boolean isLazy() {
+        return lazy;
+    }
+
+    /**
+     * Get the servlet context that is shared by all registrations, starting the dispatcher context if needed.
+     */
+    synchronized ServletContext getServletContext() throws NamespaceException {
+        if (deploymentController == null) {
+            deploymentController = startDeployment();
+        }
+        return dispatcherServlet.getServletContext();
+    }
+
+    void register(String alias, Servlet servlet) throws NamespaceException {
+        getServletContext();
+        if (servlets.putIfAbsent(alias, servlet) != null) {
+            throw new NamespaceException(OSGiMessages.MESSAGES.aliasMappingAlreadyExists(alias));
+        }
+        if (servlet instanceof LazyServlet) {
+            pendingServlets.add((LazyServlet) servlet);
+            startWarmup();
+        }
+    }
+
+    Servlet unregister(String alias) {
+        Servlet servlet = servlets.remove(alias);
+        if (servlet instanceof LazyServlet) {
+            pendingServlets.remove(servlet);
+        }
+        return servlet;
+    }
+
+    /**
+     * Remove the given servlet, but only if it is still registered for the alias.
+     */
+    boolean unregister(String alias, Servlet servlet) {
+        if (!servlets.remove(alias, servlet)) {
+            return false;
+        }
+        if (servlet instanceof LazyServlet) {
+            pendingServlets.remove(servlet);
+        }
+        return true;
+    }
+
+    synchronized void stop() {
+        if (warmupExecutor != null) {
+            warmupExecutor.shutdownNow();
+            warmupExecutor = null;
+        }
+        pendingServlets.clear();
+        if (deploymentController != null) {
+            try {
+                deploymentController.stop();
+            } catch (Exception ex) {
+                WEB_LOGGER.stopContextFailed(ex);
+            }
+            try {
+                deploymentController.destroy();
+            } catch (Exception ex) {
+                WEB_LOGGER.destroyContextFailed(ex);
+            }
+            deploymentController = null;
+        }
+    }
+
+    private synchronized void startWarmup() {
+        if (warmupExecutor != null) {
+            return;
+        }
+        warmupExecutor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable run) {
+                Thread thread = new Thread(run, "HttpService Warmup");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        warmupExecutor.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                warmup();
+            }
+        }, WARMUP_IDLE_TIME, WARMUP_INTERVAL, TimeUnit.MILLISECONDS);
+    }
+
+    // Initialize pending servlets for as long as no request comes in
+    private void warmup() {
+        LazyServlet servlet;
+        while (isIdle() && (servlet = pendingServlets.poll()) != null) {
+            try {
+                servlet.initialize();
+            } catch (Throwable th) {
+                WEB_LOGGER.debugf(th, "Cannot initialize servlet: %s", servlet.getServletConfig().getServletName());
+            }
+        }
+    }
+
+    private boolean isIdle() {
+        return System.currentTimeMillis() - lastRequestTime > WARMUP_IDLE_TIME;
+    }
+
+    private WebDeploymentController startDeployment() throws NamespaceException {
+        storageDir.mkdirs();
+
+        WebDeploymentBuilder deploymentBuilder = new WebDeploymentBuilder();
+        deploymentBuilder.setDocumentRoot(storageDir);
+        deploymentBuilder.setContextRoot(contextRoot);
+        deploymentBuilder.setClassLoader(DispatcherContext.class.getClassLoader());
+
+        deploymentBuilder.addMimeMapping("html", "text/html");
+        deploymentBuilder.addMimeMapping("jpg", "image/jpeg");
+        deploymentBuilder.addMimeMapping("png", "image/png");
+        deploymentBuilder.addMimeMapping("gif", "image/gif");
+        deploymentBuilder.addMimeMapping("css", "text/css");
+        deploymentBuilder.addMimeMapping("js", "text/javascript");
+
+        ServletBuilder wrapper = new ServletBuilder();
+        wrapper.setServletName("osgi-dispatcher");
+        wrapper.setServlet(dispatcherServlet);
+        wrapper.setServletClass(DispatcherServlet.class);
+        wrapper.setForceInit(true);
+        wrapper.addUrlMapping("/*");
+        deploymentBuilder.addServlet(wrapper);
+
+        WebDeploymentController controller;
+        try {
+            controller = virtualHost.addWebDeployment(deploymentBuilder);
+            WEB_LOGGER.registerWebapp(deploymentBuilder.getContextRoot());
+            controller.create();
+        } catch (Exception ex) {
+            throw new NamespaceException(WEB_LOGGER.createContextFailed(), ex);
+        }
+        try {
+            controller.start();
+        } catch (Exception ex) {
+            throw new NamespaceException(WEB_LOGGER.startContextFailed(), ex);
+        }
+        return controller;
+    }
+
+    @SuppressWarnings("serial")
+    final class DispatcherServlet extends HttpServlet {
+
+        @Override
+        protected void service(HttpServletRequest req, HttpServletResponse res) throws ServletException, IOException {
+            lastRequestTime = System.currentTimeMillis();
+            String path = req.getPathInfo();
+            if (path == null) {
+                path = "/";
+            }
+            Entry<Servlet> entry = servlets.lookup(path);
+            if (entry == null) {
+                res.sendError(HttpServletResponse.SC_NOT_FOUND, req.getRequestURI());
+                return;
+            }
+            String alias = entry.getAlias();
+            String servletPath = "/".equals(alias) ? "" : alias;
+            String pathInfo = path.length() > servletPath.length() ? path.substring(servletPath.length()) : null;
+            entry.getValue().service(new DispatchedRequest(req, servletPath, pathInfo), res);
+        }
+    }
+
+    /* Presents the matched alias as the servlet path of the request.
+     */
+    static final class DispatchedRequest extends HttpServletRequestWrapper {
+        private final String servletPath;
+        private final String pathInfo;
+
+        DispatchedRequest(HttpServletRequest request, String servletPath, String pathInfo) {
+            super(request);
+            this.servletPath = servletPath;
+            this.pathInfo = pathInfo;
+        }
+
+        @Override
+        public String getServletPath() {
+            return servletPath;
+        }
+
+        @Override
+        public String getPathInfo() {
+            return pathInfo;
+        }
+
+        @Override
+        public String getPathTranslated() {
+            return null;
+        }
+    }
+}
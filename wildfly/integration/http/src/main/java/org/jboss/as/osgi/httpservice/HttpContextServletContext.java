@@ -0,0 +1,129 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.osgi.httpservice;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.servlet.ServletContext;
+
+import org.osgi.service.http.HttpContext;
+
+/**
+ * The {@link ServletContext} that the servlets of an {@link HttpContext} see in the dispatcher context.
+ *
+ * The resource and mime type lookups go to the HttpContext. The attributes are kept per HttpContext, the attributes
+ * of the shared dispatcher deployment stay visible unless they are shadowed. Everything else goes to the servlet
+ * context of the shared dispatcher deployment.
+ *
+ * @since 17-Oct-2026
+ */
+final class HttpContextServletContext implements InvocationHandler {
+
+    private final ServletContext delegate;
+    private final HttpContext httpContext;
+    private final ConcurrentMap<String, Object> attributes = new ConcurrentHashMap<String, Object>();
+
+    static ServletContext create(ServletContext delegate, HttpContext httpContext) {
+        ClassLoader classLoader = HttpContextServletContext.class.getClassLoader();
+        Class<?>[] interfaces = new Class<?>[] { ServletContext.class };
+        return (ServletContext) Proxy.newProxyInstance(classLoader, interfaces, new HttpContextServletContext(delegate, httpContext));
+    }
+
+    private HttpContextServletContext(ServletContext delegate, HttpContext httpContext) {
+        this.delegate = delegate;
+        this.httpContext = httpContext;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        String name = method.getName();
+        if (args != null && args.length == 1 && args[0] instanceof String) {
+            String path = (String) args[0];
+            if ("getResource".equals(name)) {
+                return httpContext.getResource(path);
+            } else if ("getResourceAsStream".equals(name)) {
+                URL url = httpContext.getResource(path);
+                return url != null ? url.openStream() : null;
+            } else if ("getMimeType".equals(name)) {
+                String mimeType = httpContext.getMimeType(path);
+                return mimeType != null ? mimeType : delegate.getMimeType(path);
+            } else if ("getRealPath".equals(name)) {
+                return getRealPath(path);
+            }
+        }
+        if ("getAttribute".equals(name) && args != null && args.length == 1) {
+            Object value = attributes.get(args[0]);
+            return value != null ? value : delegate.getAttribute((String) args[0]);
+        } else if ("setAttribute".equals(name) && args != null && args.length == 2) {
+            if (args[1] != null) {
+                attributes.put((String) args[0], args[1]);
+            } else {
+                attributes.remove(args[0]);
+            }
+            return null;
+        } else if ("removeAttribute".equals(name) && args != null && args.length == 1) {
+            attributes.remove(args[0]);
+            return null;
+        } else if ("getAttributeNames".equals(name) && args == null) {
+            Set<String> names = new LinkedHashSet<String>(attributes.keySet());
+            names.addAll(Collections.list(delegate.getAttributeNames()));
+            return Collections.enumeration(names);
+        }
+        if (args == null && "hashCode".equals(name)) {
+            return System.identityHashCode(proxy);
+        } else if (args != null && args.length == 1 && "equals".equals(name)) {
+            return proxy == args[0];
+        } else if (args == null && "toString".equals(name)) {
+            return "ServletContext[" + httpContext + "]";
+        }
+        try {
+            return method.invoke(delegate, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    // Only resources that the HttpContext serves from the file system have a real path
+    private String getRealPath(String path) {
+        URL url = httpContext.getResource(path);
+        if (url == null || !"file".equals(url.getProtocol())) {
+            return null;
+        }
+        try {
+            return new File(url.toURI()).getAbsolutePath();
+        } catch (URISyntaxException ex) {
+            return null;
+        }
+    }
+}
@@ -26,10 +26,12 @@ package org.jboss.as.osgi.httpservice;
 import static org.jboss.as.osgi.OSGiLogger.LOGGER;
 import static org.jboss.as.osgi.OSGiMessages.MESSAGES;
 
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.HashSet;
-import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
 import javax.servlet.Servlet;
 
 import org.jboss.as.osgi.OSGiMessages;
@@ -56,88 +58,140 @@ final class HttpServiceFactory implements ServiceFactory<HttpService> {
     private final CommonWebServer webServer;
     private final WebHost virtualHost;
     private final ServerEnvironment serverEnvironment;
+    private final DispatcherContext dispatcher;
+    private final ResourceCache resourceCache;
 
-    HttpServiceFactory(CommonWebServer webServer, WebHost virtualHost, ServerEnvironment serverEnvironment) {
+    HttpServiceFactory(CommonWebServer webServer, WebHost virtualHost, ServerEnvironment serverEnvironment, DispatcherContext dispatcher, ResourceCache resourceCache) {
         this.registry = GlobalRegistry.INSTANCE;
         this.webServer = webServer;
         this.virtualHost = virtualHost;
         this.serverEnvironment = serverEnvironment;
+        this.dispatcher = dispatcher;
+        this.resourceCache = resourceCache;
     }
 
     @Override
     public HttpService getService(final Bundle bundle, final ServiceRegistration<HttpService> registration) {
-        synchronized (registry) {
-            return new HttpServiceImpl(serverEnvironment, webServer, virtualHost, bundle);
-        }
+        return new HttpServiceImpl(serverEnvironment, webServer, virtualHost, dispatcher, resourceCache, bundle);
     }
 
     @Override
     public void ungetService(Bundle bundle, ServiceRegistration<HttpService> registration, HttpService service) {
-        synchronized (registry) {
-            HttpServiceImpl httpService = (HttpServiceImpl) service;
-            for (Registration reg : registry.unregister(bundle)) {
-                httpService.unregisterInternal(reg);
-            }
+        HttpServiceImpl httpService = (HttpServiceImpl) service;
+        for (Registration reg : registry.unregister(bundle)) {
+            httpService.unregisterInternal(reg);
         }
     }
 
+    /* The registry of all HttpService aliases.
+     *
+     * Registrations are indexed by alias, by servlet identity and by owning bundle. The indexes are concurrent maps,
+     * so that lookups and bundle cleanup do not contend on a global lock.
+     * The {@code GlobalRegistryBenchmark} in the benchmarks module drives this class through its package-private API.
+     */
     static class GlobalRegistry {
 
         static GlobalRegistry INSTANCE = new GlobalRegistry();
-        private Map<String, Registration> registrations = new HashMap<String, Registration>();
+        private final ConcurrentMap<String, Registration> registrations = new ConcurrentHashMap<String, Registration>();
+        private final ConcurrentMap<ServletKey, Registration> servlets = new ConcurrentHashMap<ServletKey, Registration>();
+        private final ConcurrentMap<Bundle, Set<Registration>> bundles = new ConcurrentHashMap<Bundle, Set<Registration>>();
 
         private GlobalRegistry() {
         }
 
-        synchronized Registration register(String alias, Bundle bundle, WebDeploymentController context, Servlet servlet, Registration.Type type) throws NamespaceException {
-            if (exists(alias)) { throw new NamespaceException(OSGiMessages.MESSAGES.aliasMappingAlreadyExists(alias)); }
+        Registration register(String alias, Bundle bundle, WebDeploymentController context, Servlet servlet, Registration.Type type) throws NamespaceException {
+            Registration result = new Registration(alias, bundle, context, servlet, type);
+            if (registrations.putIfAbsent(alias, result) != null) { throw new NamespaceException(OSGiMessages.MESSAGES.aliasMappingAlreadyExists(alias)); }
 
             LOGGER.infoRegisterHttpServiceAlias(alias);
 
-            Registration result = new Registration(alias, bundle, context, servlet, type);
-            registrations.put(alias, result);
-
+            servlets.put(new ServletKey(servlet), result);
+            Set<Registration> bundleRegistrations = bundles.get(bundle);
+            if (bundleRegistrations == null) {
+                bundleRegistrations = Collections.newSetFromMap(new ConcurrentHashMap<Registration, Boolean>());
+                Set<Registration> existing = bundles.putIfAbsent(bundle, bundleRegistrations);
+                if (existing != null) {
+                    bundleRegistrations = existing;
+                }
+            }
+            bundleRegistrations.add(result);
             return result;
         }
 
-        synchronized boolean contains(Servlet servlet) {
-            for (Registration reg : registrations.values()) {
-                if (servlet.equals(reg.getServlet())) { return true; }
-            }
-            return false;
+        boolean contains(Servlet servlet) {
+            return servlets.containsKey(new ServletKey(servlet));
         }
 
-        synchronized boolean exists(String alias) {
-            return registrations.get(alias) != null;
+        boolean exists(String alias) {
+            return registrations.containsKey(alias);
         }
 
-        synchronized Registration unregister(String alias, Bundle bundle) {
+        Registration unregister(String alias, Bundle bundle) {
 
-            if (!exists(alias)) {
+            Registration reg = registrations.get(alias);
+            if (reg == null) {
                 LOGGER.errorf(MESSAGES.aliasMappingDoesNotExist(alias));
                 return null;
             }
 
-            Registration reg = registrations.get(alias);
             if (bundle != reg.bundle) {
                 LOGGER.errorf(MESSAGES.aliasMappingNotOwnedByBundle(alias, bundle));
                 return null;
             }
 
+            if (!removeRegistration(reg)) {
+                LOGGER.errorf(MESSAGES.aliasMappingDoesNotExist(alias));
+                return null;
+            }
+            Set<Registration> bundleRegistrations = bundles.get(bundle);
+            if (bundleRegistrations != null) {
+                bundleRegistrations.remove(reg);
+            }
+
             LOGGER.infoUnregisterHttpServiceAlias(alias);
-            return registrations.remove(reg.alias);
+            return reg;
         }
 
-        synchronized Set<Registration> unregister(Bundle bundle) {
+        Set<Registration> unregister(Bundle bundle) {
             Set<Registration> result = new HashSet<Registration>();
-            for (Registration reg : new HashSet<Registration>(registrations.values())) {
-                if (bundle == reg.bundle) {
-                    registrations.remove(reg.alias);
-                    result.add(reg);
+            Set<Registration> bundleRegistrations = bundles.remove(bundle);
+            if (bundleRegistrations != null) {
+                for (Registration reg : bundleRegistrations) {
+                    if (removeRegistration(reg)) {
+                        result.add(reg);
+                    }
                 }
             }
             return result;
         }
+
+        private boolean removeRegistration(Registration reg) {
+            if (!registrations.remove(reg.alias, reg)) {
+                return false;
+            }
+            servlets.remove(new ServletKey(reg.servlet), reg);
+            return true;
+        }
+    }
+
+    /* Compares servlets by identity.
+     */
+    private static final class ServletKey {
+        private final Servlet servlet;
+
+        ServletKey(Servlet servlet) {
+            this.servlet = servlet;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(servlet);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof ServletKey && ((ServletKey) obj).servlet == servlet;
+        }
     }
 
     static class Registration {
@@ -22,9 +22,13 @@
 
 package org.jboss.as.osgi.httpservice;
 
+import static org.jboss.as.osgi.httpservice.WebLogger.WEB_LOGGER;
+
+import java.io.File;
 import java.util.Hashtable;
 
 import org.jboss.as.controller.services.path.PathManager;
+import org.jboss.as.osgi.OSGiLogger;
 import org.jboss.as.controller.services.path.PathManagerService;
 import org.jboss.as.server.ServerEnvironment;
 import org.jboss.as.server.ServerEnvironmentService;
@@ -64,6 +68,8 @@ final class HttpServiceFactoryService implements Service<WebDeploymentController
     private final InjectedValue<WebHost> injectedVirtualHost = new InjectedValue<WebHost>();
     private final InjectedValue<CommonWebServer> injectedWebServer = new InjectedValue<CommonWebServer>();
     private ServiceRegistration<?> registration;
+    private DispatcherContext dispatcher;
+    private ResourceCache resourceCache;
 
     private HttpServiceFactoryService() {
     }
@@ -89,13 +95,44 @@ final class HttpServiceFactoryService implements Service<WebDeploymentController
         Hashtable<String, Object> props = new Hashtable<String, Object>();
         props.put("provider", getClass().getPackage().getName());
 
-        ServiceFactory<HttpService> serviceFactory = new HttpServiceFactory(webServer, virtualHost, serverEnvironment);
+        // Serve all registrations from a single dispatcher context if configured
+        String contextRoot = syscontext.getProperty(DispatcherContext.PROPERTY_DISPATCHER_CONTEXT_ROOT);
+        if (contextRoot != null) {
+            File storageDir = new File(serverEnvironment.getServerTempDir() + File.separator + "osgi-dispatcher" + File.separator + "osgiservlet-root");
+            boolean lazy = Boolean.parseBoolean(syscontext.getProperty(DispatcherContext.PROPERTY_DISPATCHER_LAZY));
+            dispatcher = new DispatcherContext(virtualHost, contextRoot, storageDir, lazy);
+        }
+
+        resourceCache = new ResourceCache(getResourceCacheSize(syscontext));
+
+        ServiceFactory<HttpService> serviceFactory = new HttpServiceFactory(webServer, virtualHost, serverEnvironment, dispatcher, resourceCache);
         registration = syscontext.registerService(HttpService.class.getName(), serviceFactory, props);
     }
 
+    private static long getResourceCacheSize(BundleContext syscontext) {
+        String cacheSize = syscontext.getProperty(ResourceCache.PROPERTY_RESOURCE_CACHE_SIZE);
+        if (cacheSize != null) {
+            try {
+                long value = Long.parseLong(cacheSize.trim());
+                if (value >= 0)
+                    return value;
+            } catch (NumberFormatException ex) {
+                // fall through
+            }
+            OSGiLogger.LOGGER.warnInvalidPropertyValue(cacheSize, ResourceCache.PROPERTY_RESOURCE_CACHE_SIZE, ResourceCache.DEFAULT_CAPACITY);
+        }
+        return ResourceCache.DEFAULT_CAPACITY;
+    }
+
     @Override
     public void stop(StopContext stopContext) {
         registration.unregister();
+        if (dispatcher != null) {
+            dispatcher.stop();
+            dispatcher = null;
+        }
+        WEB_LOGGER.debugf("Resource cache: %d hits, %d misses, %d evictions", resourceCache.getHitCount(), resourceCache.getMissCount(), resourceCache.getEvictionCount());
+        resourceCache.clear();
     }
 
     @Override
@@ -25,13 +25,17 @@ import static org.jboss.as.osgi.httpservice.WebLogger.WEB_LOGGER;
 
 import java.io.File;
 import java.io.IOException;
+import java.lang.ref.WeakReference;
 import java.util.Dictionary;
 import java.util.Enumeration;
 import java.util.Map;
 import java.util.WeakHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import javax.servlet.Servlet;
 import javax.servlet.ServletConfig;
+import javax.servlet.ServletContext;
 import javax.servlet.ServletException;
 import javax.servlet.ServletRequest;
 import javax.servlet.ServletResponse;
@@ -43,6 +47,8 @@ import org.jboss.as.osgi.OSGiMessages;
 import org.jboss.as.osgi.httpservice.HttpServiceFactory.GlobalRegistry;
 import org.jboss.as.osgi.httpservice.HttpServiceFactory.Registration;
 import org.jboss.as.osgi.httpservice.HttpServiceFactory.Registration.Type;
+import org.jboss.as.osgi.service.ServletStatistics;
+import org.jboss.as.osgi.service.ServletStatistics.AliasStatistics;
 import org.jboss.as.server.ServerEnvironment;
 import org.jboss.as.web.host.ApplicationContextWrapper;
 import org.jboss.as.web.host.CommonWebServer;
@@ -69,14 +75,22 @@ final class HttpServiceImpl implements HttpService {
     private final CommonWebServer webServer;
     private final WebHost virtualHost;
     private final Bundle bundle;
+    private final DispatcherContext dispatcher;
+    private final ResourceCache resourceCache;
 
     // This map holds the shared ApplicationContexts to be used with the associated HttpContext.
     // It is a WeakHashMap which means that the ApplicationContexts are remembered for as long
     // as the HttpContext exists.
     private final Map<HttpContext, ShareableContextWrapper> contexts = new WeakHashMap<HttpContext, ShareableContextWrapper>();
 
-    HttpServiceImpl(ServerEnvironment serverEnvironment, CommonWebServer webServer, WebHost virtualHost, Bundle bundle) {
+    // The same for the ServletContexts that the HttpContexts see in the dispatcher context. The values are weak too,
+    // because the ServletContext refers to its HttpContext. The registered servlets keep it alive.
+    private final Map<HttpContext, WeakReference<ServletContext>> dispatchedContexts = new WeakHashMap<HttpContext, WeakReference<ServletContext>>();
+
+    HttpServiceImpl(ServerEnvironment serverEnvironment, CommonWebServer webServer, WebHost virtualHost, DispatcherContext dispatcher, ResourceCache resourceCache, Bundle bundle) {
         this.registry = GlobalRegistry.INSTANCE;
+        this.dispatcher = dispatcher;
+        this.resourceCache = resourceCache;
         this.virtualHost = virtualHost;
         this.webServer = webServer;
         this.serverEnvironment = serverEnvironment;
@@ -99,13 +113,22 @@ final class HttpServiceImpl implements HttpService {
         validateName(name);
 
         if (httpContext == null) { httpContext = createDefaultHttpContext(); }
-        ResourceServlet servlet = new ResourceServlet(name, httpContext);
+        ResourceServlet servlet = new ResourceServlet(name, httpContext, bundle, resourceCache);
 
-        registerInternal(alias, servlet, null, null, Type.RESOURCE);
+        try {
+            registerInternal(alias, servlet, null, null, Type.RESOURCE);
+        } catch (ServletException ex) {
+            throw new NamespaceException(WEB_LOGGER.startContextFailed(), ex);
+        }
     }
 
     @SuppressWarnings("rawtypes")
-    private synchronized ServletBuilder registerInternal(String alias, Servlet servlet, Dictionary initparams, HttpContext httpContext, Type type) throws NamespaceException {
+    private synchronized ServletBuilder registerInternal(String alias, Servlet servlet, Dictionary initparams, HttpContext httpContext, Type type) throws ServletException, NamespaceException {
+        if (dispatcher != null) {
+            registerDispatched(alias, servlet, initparams, httpContext, type);
+            return null;
+        }
+
         File storageDir = new File(serverEnvironment.getServerTempDir() + File.separator + alias + File.separator + "osgiservlet-root");
         storageDir.mkdirs();
 
@@ -141,7 +164,7 @@ final class HttpServiceImpl implements HttpService {
         ServletBuilder wrapper = new ServletBuilder();
 
         wrapper.setServletName(wrapperName);
-        wrapper.setServlet(new SecurityServletWrapper(servlet, httpContext));
+        wrapper.setServlet(new SecurityServletWrapper(servlet, httpContext, alias, bundle));
         wrapper.setServletClass(servlet.getClass());
 
         // Init parameters
@@ -181,6 +204,48 @@ final class HttpServiceImpl implements HttpService {
         return wrapper;
     }
 
+    // Registers the servlet with the shared dispatcher context, which only costs the servlet initialization
+    @SuppressWarnings("rawtypes")
+    private void registerDispatched(String alias, Servlet servlet, Dictionary initparams, HttpContext httpContext, Type type) throws ServletException, NamespaceException {
+        if (httpContext == null) {
+            httpContext = new DefaultHttpContext(bundle);
+        }
+        ServletContext servletContext = getDispatchedContext(httpContext);
+        Servlet wrapper = new SecurityServletWrapper(servlet, httpContext, alias, bundle);
+        ServletConfig config = new DefaultServletConfig(alias.substring(1), servletContext, initparams);
+        if (dispatcher.isLazy()) {
+            wrapper = new LazyServlet(wrapper, config);
+        } else {
+            wrapper.init(config);
+        }
+
+        // Route the alias before it becomes visible in the registry, so that a concurrent unregister finds the servlet
+        try {
+            dispatcher.register(alias, wrapper);
+        } catch (NamespaceException ex) {
+            wrapper.destroy();
+            throw ex;
+        }
+        try {
+            registry.register(alias, bundle, null, servlet, type);
+        } catch (NamespaceException ex) {
+            dispatcher.unregister(alias, wrapper);
+            wrapper.destroy();
+            throw ex;
+        }
+    }
+
+    private ServletContext getDispatchedContext(HttpContext httpContext) throws NamespaceException {
+        ServletContext servletContext = dispatcher.getServletContext();
+        WeakReference<ServletContext> ref = dispatchedContexts.get(httpContext);
+        ServletContext result = ref != null ? ref.get() : null;
+        if (result == null) {
+            result = HttpContextServletContext.create(servletContext, httpContext);
+            dispatchedContexts.put(httpContext, new WeakReference<ServletContext>(result));
+        }
+        return result;
+    }
+
     @Override
     public void unregister(String alias) {
         try {
@@ -203,6 +268,13 @@ final class HttpServiceImpl implements HttpService {
 
     void unregisterInternal(Registration reg) {
         WebDeploymentController context = reg.getContext();
+        if (context == null) {
+            Servlet wrapper = dispatcher != null ? dispatcher.unregister(reg.getAlias()) : null;
+            if (wrapper != null) {
+                wrapper.destroy();
+            }
+            return;
+        }
         try {
             context.stop();
         } catch (Exception e) {
@@ -250,22 +322,43 @@ final class HttpServiceImpl implements HttpService {
     }
 
     /* This wrapper class takes care of handling the security through the HttpContext.
+     * It also records the request statistics of the alias while the servlet is initialized.
+     * Requests hold the read lock while they are serviced, so that destroy waits for the requests in flight.
      */
     static class SecurityServletWrapper implements Servlet {
         private final HttpContext httpContext;
         private final Servlet delegate;
+        private final String alias;
+        private final String bundleName;
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private volatile AliasStatistics statistics;
+        private boolean destroyed;
 
-        SecurityServletWrapper(Servlet servlet, HttpContext ctx) {
+        SecurityServletWrapper(Servlet servlet, HttpContext ctx, String alias, Bundle bundle) {
             if (servlet == null) { throw new NullPointerException(); }
             delegate = servlet;
 
             if (ctx == null) { throw new NullPointerException(); }
             httpContext = ctx;
+
+            this.alias = alias;
+            this.bundleName = bundle.getSymbolicName() + ":" + bundle.getVersion();
         }
 
         @Override
         public void destroy() {
-            delegate.destroy();
+            lock.writeLock().lock();
+            try {
+                destroyed = true;
+                AliasStatistics stats = statistics;
+                if (stats != null) {
+                    ServletStatistics.getInstance().unregister(stats);
+                    statistics = null;
+                }
+                delegate.destroy();
+            } finally {
+                lock.writeLock().unlock();
+            }
         }
 
         @Override
@@ -281,10 +374,52 @@ final class HttpServiceImpl implements HttpService {
         @Override
         public void init(ServletConfig sc) throws ServletException {
             delegate.init(sc);
+            statistics = ServletStatistics.getInstance().register(alias, bundleName);
         }
 
         @Override
         public void service(ServletRequest request, ServletResponse response) throws ServletException, IOException {
+            lock.readLock().lock();
+            try {
+                if (destroyed) {
+                    // Unregistered while the request was dispatched
+                    if (response instanceof HttpServletResponse) {
+                        ((HttpServletResponse) response).sendError(HttpServletResponse.SC_NOT_FOUND);
+                    }
+                    return;
+                }
+                // The dispatcher context runs with its own class loader, the servlet expects the one of its bundle
+                Thread thread = Thread.currentThread();
+                ClassLoader tccl = thread.getContextClassLoader();
+                thread.setContextClassLoader(delegate.getClass().getClassLoader());
+                try {
+                    serviceWithStatistics(request, response);
+                } finally {
+                    thread.setContextClassLoader(tccl);
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private void serviceWithStatistics(ServletRequest request, ServletResponse response) throws ServletException, IOException {
+            AliasStatistics stats = statistics;
+            if (stats == null) {
+                serviceInternal(request, response);
+                return;
+            }
+            stats.requestStarted();
+            long startTime = System.nanoTime();
+            boolean error = true;
+            try {
+                serviceInternal(request, response);
+                error = response instanceof HttpServletResponse && ((HttpServletResponse) response).getStatus() >= 500;
+            } finally {
+                stats.requestCompleted(System.nanoTime() - startTime, error);
+            }
+        }
+
+        private void serviceInternal(ServletRequest request, ServletResponse response) throws ServletException, IOException {
             if (request instanceof HttpServletRequest && response instanceof HttpServletResponse) {
                 HttpServletRequest httpRequest = (HttpServletRequest) request;
                 HttpServletResponse httpResponse = (HttpServletResponse) response;
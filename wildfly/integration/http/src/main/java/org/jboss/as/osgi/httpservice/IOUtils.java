@@ -21,6 +21,7 @@
  */
 package org.jboss.as.osgi.httpservice;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
@@ -52,6 +53,27 @@ class IOUtils {
         }
     }
 
+    /**
+     * Read the given stream into a byte array, or return null if it has more than maxSize bytes.
+     */
+    public static byte[] toByteArray(InputStream input, int maxSize) throws IOException {
+        try {
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            byte[] bytes = new byte[1024];
+            int r = input.read(bytes);
+            while (r > 0) {
+                if (output.size() + r > maxSize) {
+                    return null;
+                }
+                output.write(bytes, 0, r);
+                r = input.read(bytes);
+            }
+            return output.toByteArray();
+        } finally {
+            input.close();
+        }
+    }
+
     public static boolean deleteRecursive(File file) {
         boolean result = true;
         if (file.isDirectory()) {
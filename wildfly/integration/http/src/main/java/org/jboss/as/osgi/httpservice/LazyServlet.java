@@ -0,0 +1,122 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.osgi.httpservice;
+
+import java.io.IOException;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import javax.servlet.Servlet;
+import javax.servlet.ServletConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * A servlet that defers the initialization of its delegate until it is first needed.
+ *
+ * The delegate is initialized exactly once, either by the first request or by the warm-up of the
+ * {@link DispatcherContext}. A failed initialization is retried with the next request.
+ * Requests hold the read lock while they are serviced, so that destroy waits for the requests in flight.
+ *
+ * @since 17-Oct-2026
+ */
+final class LazyServlet implements Servlet {
+
+    private final Servlet delegate;
+    private final ServletConfig config;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean initialized;
+    private boolean destroyed;
+
+    LazyServlet(Servlet delegate, ServletConfig config) {
+        this.delegate = delegate;
+        this.config = config;
+    }
+
+    boolean isInitialized() {
+        return initialized;
+    }
+
+    void initialize() throws ServletException {
+        if (!initialized) {
+            lock.writeLock().lock();
+            try {
+                if (!initialized && !destroyed) {
+                    delegate.init(config);
+                    initialized = true;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    @Override
+    public void init(ServletConfig sc) throws ServletException {
+        initialize();
+    }
+
+    @Override
+    public ServletConfig getServletConfig() {
+        return config;
+    }
+
+    @Override
+    public String getServletInfo() {
+        return delegate.getServletInfo();
+    }
+
+    @Override
+    public void service(ServletRequest request, ServletResponse response) throws ServletException, IOException {
+        initialize();
+        lock.readLock().lock();
+        try {
+            if (!initialized) {
+                // Unregistered while the request was dispatched
+                if (response instanceof HttpServletResponse) {
+                    ((HttpServletResponse) response).sendError(HttpServletResponse.SC_NOT_FOUND);
+                }
+                return;
+            }
+            delegate.service(request, response);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        lock.writeLock().lock();
+        try {
+            destroyed = true;
+            if (initialized) {
+                initialized = false;
+                delegate.destroy();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
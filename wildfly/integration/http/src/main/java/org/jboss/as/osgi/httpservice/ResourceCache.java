@@ -0,0 +1,157 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.osgi.httpservice;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded cache of resource content that is served through the HttpService.
+ *
+ * Entries are evicted in least recently used order once the total number of cached bytes exceeds the
+ * configured capacity. Resources larger than a fraction of the capacity are not cached at all.
+ *
+ * @since 17-Oct-2026
+ */
+final class ResourceCache {
+
+    /** The framework property that defines the capacity of the cache in bytes */
+    static final String PROPERTY_RESOURCE_CACHE_SIZE = "org.jboss.osgi.httpservice.resource.cache.size";
+    static final long DEFAULT_CAPACITY = 8 * 1024 * 1024;
+
+    private final long capacity;
+    private final Map<String, CachedResource> entries = new LinkedHashMap<String, CachedResource>(16, 0.75f, true);
+    private long size;
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    ResourceCache(long capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * The largest resource that is cached.
+     */
+    int getMaxEntrySize() {
+        return (int) Math.min(capacity / 16, Integer.MAX_VALUE);
+    }
+
+    synchronized CachedResource get(String key) {
+        CachedResource entry = entries.get(key);
+        if (entry != null) {
+            hitCount.incrementAndGet();
+        } else {
+            missCount.incrementAndGet();
+        }
+        return entry;
+    }
+
+    synchronized void put(String key, CachedResource entry) {
+        if (entry.getLength() > getMaxEntrySize()) {
+            return;
+        }
+        CachedResource previous = entries.put(key, entry);
+        if (previous != null) {
+            size -= previous.getLength();
+        }
+        size += entry.getLength();
+        Iterator<CachedResource> iterator = entries.values().iterator();
+        while (size > capacity && iterator.hasNext()) {
+            size -= iterator.next().getLength();
+            iterator.remove();
+            evictionCount.incrementAndGet();
+        }
+    }
+
+    synchronized void clear() {
+        entries.clear();
+        size = 0;
+    }
+
+    long getCapacity() {
+        return capacity;
+    }
+
+    synchronized long getSize() {
+        return size;
+    }
+
+    synchronized int getEntryCount() {
+        return entries.size();
+    }
+
+    long getHitCount() {
+        return hitCount.get();
+    }
+
+    long getMissCount() {
+        return missCount.get();
+    }
+
+    long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    static final class CachedResource {
+        private final byte[] content;
+        private final String etag;
+        private final String contentType;
+        private final String contentEncoding;
+        private final long lastModified;
+
+        CachedResource(byte[] content, String etag, String contentType, String contentEncoding, long lastModified) {
+            this.content = content;
+            this.etag = etag;
+            this.contentType = contentType;
+            this.contentEncoding = contentEncoding;
+            this.lastModified = lastModified;
+        }
+
+        byte[] getContent() {
+            return content;
+        }
+
+        int getLength() {
+            return content.length;
+        }
+
+        String getETag() {
+            return etag;
+        }
+
+        String getContentType() {
+            return contentType;
+        }
+
+        String getContentEncoding() {
+            return contentEncoding;
+        }
+
+        long getLastModified() {
+            return lastModified;
+        }
+    }
+}
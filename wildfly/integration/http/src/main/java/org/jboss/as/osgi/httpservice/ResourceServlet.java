@@ -21,10 +21,18 @@
  */
 package org.jboss.as.osgi.httpservice;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
 import java.net.URLConnection;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPOutputStream;
 
 import javax.servlet.ServletException;
 import javax.servlet.ServletOutputStream;
@@ -32,41 +40,209 @@ import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import org.jboss.as.osgi.httpservice.ResourceCache.CachedResource;
+import org.osgi.framework.Bundle;
 import org.osgi.service.http.HttpContext;
 
 /**
  * An {@link org.osgi.service.http.HttpService} implementation
  *
+ * Resources are served with a strong ETag that is derived from the bundle revision and the CRC of the content.
+ * Conditional requests and single byte ranges are supported. The content of small resources is kept in a
+ * shared {@link ResourceCache}.
+ *
+ * Text based resources are served compressed if the client accepts it. Precompressed {@code .br} and {@code .gz}
+ * siblings of a resource are preferred, otherwise the resource is gzipped once per bundle revision.
+ *
  * @author Thomas.Diesler@jboss.com
  * @since 19-Jul-2012
  */
 @SuppressWarnings("serial")
 final class ResourceServlet extends HttpServlet {
 
+    private static final Set<String> COMPRESSIBLE_TYPES = new HashSet<String>(Arrays.asList("application/javascript",
+            "application/json", "application/xml", "image/svg+xml"));
+
     private final String name;
     private final HttpContext context;
+    private final Bundle bundle;
+    private final ResourceCache cache;
+    // Remembers which compressed variants do not exist, or are not worth serving
+    private final Map<String, Boolean> variants = new ConcurrentHashMap<String, Boolean>();
+    private volatile String variantsRevision;
 
-    ResourceServlet(String name, HttpContext context) {
+    ResourceServlet(String name, HttpContext context, Bundle bundle, ResourceCache cache) {
         this.name = name;
         this.context = context;
+        this.bundle = bundle;
+        this.cache = cache;
     }
 
     @Override
-    protected void service(HttpServletRequest req, HttpServletResponse res) throws ServletException, IOException {
+    protected void doGet(HttpServletRequest req, HttpServletResponse res) throws ServletException, IOException {
 
-        String path = req.getPathInfo();
-        URL resurl = context.getResource(name + path);
+        String resname = getResourceName(req.getPathInfo());
+        URL resurl = context.getResource(resname);
         if (resurl == null) {
             res.sendError(HttpServletResponse.SC_NOT_FOUND, req.getRequestURI());
+            return;
+        }
+
+        // The bundle revision is part of the key, so that an updated bundle never sees stale content
+        String revision = getRevision();
+        CachedResource resource = getResource(revision, resname, resurl, null, null);
+        if (resource == null) {
+            streamResource(req, res, resname, resurl.openConnection());
+            return;
         }
 
-        URLConnection conn = resurl.openConnection();
+        if (isCompressible(resource.getContentType())) {
+            res.setHeader("Vary", "Accept-Encoding");
+            if (!revision.equals(variantsRevision)) {
+                variants.clear();
+                variantsRevision = revision;
+            }
+            String acceptEncoding = req.getHeader("Accept-Encoding");
+            CachedResource variant = null;
+            if (isAccepted(acceptEncoding, "br")) {
+                variant = getPrecompressed(revision, resname, ".br", "br", resource);
+            }
+            if (variant == null && isAccepted(acceptEncoding, "gzip")) {
+                variant = getPrecompressed(revision, resname, ".gz", "gzip", resource);
+                if (variant == null) {
+                    variant = getCompressed(revision, resurl, resource);
+                }
+            }
+            if (variant != null) {
+                resource = variant;
+            }
+        }
+        serveResource(req, res, resource);
+    }
+
+    // Get the cached resource or load it, returns null if the resource is too large for the cache
+    private CachedResource getResource(String revision, String resname, URL resurl, String contentType, String contentEncoding) throws IOException {
+        String key = revision + ":" + resurl.toExternalForm();
+        CachedResource resource = cache.get(key);
+        if (resource == null) {
+            URLConnection conn = resurl.openConnection();
+            byte[] content = null;
+            if (conn.getContentLength() <= cache.getMaxEntrySize()) {
+                content = IOUtils.toByteArray(conn.getInputStream(), cache.getMaxEntrySize());
+            }
+            if (content == null) {
+                return null;
+            }
+            long lastModified = conn.getLastModified() != 0 ? conn.getLastModified() : bundle.getLastModified();
+            if (contentType == null) {
+                contentType = getMimeType(resname, conn);
+            }
+            resource = createResource(revision, content, contentType, contentEncoding, lastModified);
+            cache.put(key, resource);
+        }
+        return resource;
+    }
+
+    private CachedResource getPrecompressed(String revision, String resname, String suffix, String contentEncoding, CachedResource resource) throws IOException {
+        String key = revision + ":" + resname + suffix;
+        if (variants.containsKey(key)) {
+            return null;
+        }
+        URL resurl = context.getResource(resname + suffix);
+        CachedResource variant = resurl != null ? getResource(revision, resname, resurl, resource.getContentType(), contentEncoding) : null;
+        if (variant == null) {
+            variants.put(key, Boolean.FALSE);
+        }
+        return variant;
+    }
+
+    private CachedResource getCompressed(String revision, URL resurl, CachedResource resource) throws IOException {
+        String key = revision + ":" + resurl.toExternalForm() + "#gzip";
+        if (variants.containsKey(key)) {
+            return null;
+        }
+        CachedResource variant = cache.get(key);
+        if (variant == null) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(resource.getLength() / 2 + 64);
+            GZIPOutputStream gzip = new GZIPOutputStream(bytes);
+            gzip.write(resource.getContent());
+            gzip.close();
+            byte[] content = bytes.toByteArray();
+            if (content.length >= resource.getLength()) {
+                variants.put(key, Boolean.FALSE);
+                return null;
+            }
+            variant = createResource(revision, content, resource.getContentType(), "gzip", resource.getLastModified());
+            cache.put(key, variant);
+        }
+        return variant;
+    }
+
+    private CachedResource createResource(String revision, byte[] content, String contentType, String contentEncoding, long lastModified) {
+        CRC32 crc = new CRC32();
+        crc.update(content);
+        String suffix = contentEncoding != null ? "-" + contentEncoding : "";
+        String etag = "\"" + revision + "-" + Long.toHexString(crc.getValue()) + suffix + "\"";
+        return new CachedResource(content, etag, contentType, contentEncoding, lastModified);
+    }
+
+    private void serveResource(HttpServletRequest req, HttpServletResponse res, CachedResource resource) throws IOException {
+        String etag = resource.getETag();
+        long lastModified = resource.getLastModified();
+        res.setHeader("ETag", etag);
+        if (lastModified > 0) {
+            res.setDateHeader("Last-Modified", lastModified);
+        }
+        res.setHeader("Accept-Ranges", "bytes");
+        if (resource.getContentType() != null) {
+            res.setContentType(resource.getContentType());
+        }
+        if (resource.getContentEncoding() != null) {
+            res.setHeader("Content-Encoding", resource.getContentEncoding());
+        }
+        if (isNotModified(req, etag, lastModified)) {
+            res.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        int length = resource.getLength();
+        int start = 0;
+        int end = length - 1;
+        String range = req.getHeader("Range");
+        if (range != null && isRangeApplicable(req, etag, lastModified)) {
+            int[] bounds = parseRange(range, length);
+            if (bounds != null && bounds.length == 0) {
+                res.setHeader("Content-Range", "bytes */" + length);
+                res.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            if (bounds != null) {
+                start = bounds[0];
+                end = bounds[1];
+                res.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                res.setHeader("Content-Range", "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+        res.setContentLength(end - start + 1);
+        ServletOutputStream out = res.getOutputStream();
+        out.write(resource.getContent(), start, end - start + 1);
+        out.close();
+    }
+
+    // Resources that are too large for the cache are streamed from the bundle
+    private void streamResource(HttpServletRequest req, HttpServletResponse res, String resname, URLConnection conn) throws IOException {
+        long lastModified = conn.getLastModified();
+        if (lastModified != 0 && isNotModified(req, null, lastModified)) {
+            res.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
         InputStream in = conn.getInputStream();
         if (conn.getContentLength() != -1) {
             res.setContentLength(conn.getContentLength());
         }
-        if(conn.getContentType() != null) {
-            res.setContentType(conn.getContentType());
+        String mimeType = getMimeType(resname, conn);
+        if (mimeType != null) {
+            res.setContentType(mimeType);
         }
         if(conn.getContentEncoding() != null) {
             res.setCharacterEncoding(conn.getContentEncoding());
@@ -77,10 +253,143 @@ final class ResourceServlet extends HttpServlet {
         if(conn.getExpiration() != 0) {
             res.setDateHeader("expires", conn.getExpiration());
         }
-        if(conn.getLastModified() != 0) {
-            res.setDateHeader("last-modified", conn.getLastModified());
+        if(lastModified != 0) {
+            res.setDateHeader("last-modified", lastModified);
         }
         ServletOutputStream out = res.getOutputStream();
         IOUtils.copyStream(out, in);
     }
-}
\ No newline at end of file
+
+    private String getResourceName(String path) {
+        if (path == null) {
+            path = "";
+        }
+        return "/".equals(name) ? path : name + path;
+    }
+
+    private String getRevision() {
+        return Long.toHexString(bundle.getBundleId()) + "-" + Long.toHexString(bundle.getLastModified());
+    }
+
+    private String getMimeType(String resname, URLConnection conn) {
+        String mimeType = context.getMimeType(resname);
+        if (mimeType == null) {
+            mimeType = getServletContext().getMimeType(resname);
+        }
+        if (mimeType == null) {
+            mimeType = conn.getContentType();
+        }
+        return mimeType;
+    }
+
+    private boolean isNotModified(HttpServletRequest req, String etag, long lastModified) {
+        String ifNoneMatch = req.getHeader("If-None-Match");
+        if (ifNoneMatch != null) {
+            return etag != null && matchesETag(ifNoneMatch, etag);
+        }
+        long ifModifiedSince = getDateHeader(req, "If-Modified-Since");
+        return ifModifiedSince != -1 && lastModified > 0 && lastModified / 1000 <= ifModifiedSince / 1000;
+    }
+
+    private boolean isRangeApplicable(HttpServletRequest req, String etag, long lastModified) {
+        String ifRange = req.getHeader("If-Range");
+        if (ifRange == null) {
+            return true;
+        }
+        ifRange = ifRange.trim();
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(etag);
+        }
+        long date = getDateHeader(req, "If-Range");
+        return date != -1 && lastModified / 1000 == date / 1000;
+    }
+
+    private static boolean isCompressible(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        int index = contentType.indexOf(';');
+        String mimeType = (index < 0 ? contentType : contentType.substring(0, index)).trim().toLowerCase();
+        return mimeType.startsWith("text/") || COMPRESSIBLE_TYPES.contains(mimeType);
+    }
+
+    static boolean isAccepted(String header, String contentEncoding) {
+        if (header == null) {
+            return false;
+        }
+        for (String token : header.split(",")) {
+            String[] parts = token.split(";");
+            String coding = parts[0].trim();
+            if (coding.equalsIgnoreCase(contentEncoding) || coding.equals("*")) {
+                for (int i = 1; i < parts.length; i++) {
+                    String param = parts[i].trim();
+                    if (param.startsWith("q=")) {
+                        try {
+                            return Float.parseFloat(param.substring(2)) > 0;
+                        } catch (NumberFormatException ex) {
+                            return false;
+                        }
+                    }
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean matchesETag(String header, String etag) {
+        for (String tag : header.split(",")) {
+            tag = tag.trim();
+            if (tag.equals("*") || tag.equals(etag) || tag.equals("W/" + etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long getDateHeader(HttpServletRequest req, String header) {
+        try {
+            return req.getDateHeader(header);
+        } catch (IllegalArgumentException ex) {
+            return -1;
+        }
+    }
+
+    /**
+     * Parse a single byte range. Returns the inclusive bounds, an empty array if the range cannot be
+     * satisfied or null if the header should be ignored.
+     */
+    static int[] parseRange(String header, int length) {
+        header = header.trim();
+        if (!header.startsWith("bytes=") || header.indexOf(',') > 0) {
+            return null;
+        }
+        String spec = header.substring(6).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        String first = spec.substring(0, dash).trim();
+        String last = spec.substring(dash + 1).trim();
+        try {
+            if (first.isEmpty()) {
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0 || length == 0) {
+                    return new int[0];
+                }
+                return new int[] { (int) Math.max(0, length - suffix), length - 1 };
+            }
+            long start = Long.parseLong(first);
+            long end = last.isEmpty() ? length - 1 : Math.min(Long.parseLong(last), length - 1);
+            if (start >= length) {
+                return new int[0];
+            }
+            if (end < start) {
+                return null;
+            }
+            return new int[] { (int) start, (int) end };
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+}
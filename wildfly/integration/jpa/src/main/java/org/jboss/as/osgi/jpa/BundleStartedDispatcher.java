@@ -0,0 +1,71 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.osgi.jpa;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.BundleEvent;
+import org.osgi.framework.SynchronousBundleListener;
+
+/**
+ * A single bundle listener that routes {@link BundleEvent#STARTED} events to the callback that is registered for the bundle.
+ *
+ * @since 17-Oct-2026
+ */
+final class BundleStartedDispatcher implements SynchronousBundleListener {
+
+    private final ConcurrentMap<Long, Runnable> callbacks = new ConcurrentHashMap<Long, Runnable>();
+
+    void start(BundleContext syscontext) {
+        syscontext.addBundleListener(this);
+    }
+
+    void stop(BundleContext syscontext) {
+        syscontext.removeBundleListener(this);
+        callbacks.clear();
+    }
+
+    /**
+     * Register the callback that is run every time the given bundle is started.
+     */
+    void register(Bundle bundle, Runnable callback) {
+        callbacks.put(bundle.getBundleId(), callback);
+    }
+
+    void unregister(Bundle bundle, Runnable callback) {
+        callbacks.remove(bundle.getBundleId(), callback);
+    }
+
+    @Override
+    public void bundleChanged(BundleEvent event) {
+        if (event.getType() == BundleEvent.STARTED) {
+            Runnable callback = callbacks.get(event.getBundle().getBundleId());
+            if (callback != null) {
+                callback.run();
+            }
+        }
+    }
+}
@@ -0,0 +1,268 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.osgi.jpa;
+
+import static org.jboss.as.osgi.OSGiLogger.LOGGER;
+import static org.jboss.as.osgi.OSGiMessages.MESSAGES;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceException;
+import javax.persistence.spi.PersistenceProvider;
+import javax.persistence.spi.PersistenceProviderResolverHolder;
+
+import org.jipijapa.plugin.spi.PersistenceUnitMetadata;
+import org.osgi.service.jpa.EntityManagerFactoryBuilder;
+
+/**
+ * An {@link EntityManagerFactoryBuilder} that shares the {@link PersistenceUnitMetadata} of a container managed persistence unit.
+ *
+ * The factory of the container managed unit is returned if no additional properties are given. Factories that are
+ * built for additional properties are cached by the normalised property map. They are closed when the builder is closed.
+ * The cache is not bounded, because a cached factory may still be in use. Factories that a client closed are dropped
+ * from the cache on the next build, so the cache holds at most one entry per distinct set of properties in use.
+ *
+ * Additional factories are built from a view of the metadata with its own copy of the unit properties. The view
+ * ignores class transformers, because the transformer of the container managed unit is already registered with
+ * the class loader of the unit. The properties that the container bootstrapped the unit with, such as the JTA platform,
+ * the scoped cache names and the bean manager, are taken from the container factory and the given properties are applied on top.
+ * The data source of the container factory is never passed on. If the given properties override the connection settings,
+ * the view has no data sources, so that the provider connects with the given {@code javax.persistence.jdbc.*} settings,
+ * and the factory gets its own second level cache region prefix, so that it does not share cached state with the container factory.
+ *
+ * @since 17-Oct-2026
+ */
+final class EntityManagerFactoryBuilderImpl implements EntityManagerFactoryBuilder {
+
+    /** The provider that is used if the persistence unit does not declare one */
+    static final String DEFAULT_PROVIDER = "org.hibernate.jpa.HibernatePersistenceProvider";
+
+    static final String JDBC_PREFIX = "javax.persistence.jdbc.";
+    static final String CONNECTION_PREFIX = "hibernate.connection.";
+    static final String REGION_PREFIX = "hibernate.cache.region_prefix";
+
+    /** The data source properties of the container factory that are not passed on to additional factories */
+    static final String[] DATASOURCE_PROPERTIES = new String[] { "javax.persistence.jtaDataSource", "javax.persistence.nonJtaDataSource", "hibernate.connection.datasource" };
+
+    private final PersistenceUnitMetadata metadata;
+    private final EntityManagerFactory containerFactory;
+    private final ConcurrentMap<Map<String, Object>, EntityManagerFactory> factories = new ConcurrentHashMap<Map<String, Object>, EntityManagerFactory>();
+    private PersistenceProvider provider;
+    private int factoryCount;
+
+    EntityManagerFactoryBuilderImpl(PersistenceUnitMetadata metadata, EntityManagerFactory containerFactory) {
+        this.metadata = metadata;
+        this.containerFactory = containerFactory;
+    }
+
+    String getProviderClassName() {
+        String className = metadata.getPersistenceProviderClassName();
+        return className != null ? className : DEFAULT_PROVIDER;
+    }
+
+    /**
+     * Get the implementation version of the persistence provider or null.
+     */
+    String getProviderVersion() {
+        try {
+            Package providerPackage = getPersistenceProvider().getClass().getPackage();
+            return providerPackage != null ? providerPackage.getImplementationVersion() : null;
+        } catch (PersistenceException ex) {
+            return null;
+        }
+    }
+
+    @Override
+    public EntityManagerFactory createEntityManagerFactory(Map<String, Object> props) {
+        Map<String, Object> key = normalize(props);
+        if (key.isEmpty())
+            return containerFactory;
+
+        EntityManagerFactory emf = factories.get(key);
+        if (emf != null && emf.isOpen())
+            return emf;
+
+        synchronized (this) {
+            emf = factories.get(key);
+            if (emf == null || !emf.isOpen()) {
+                purgeClosedFactories();
+                LOGGER.debugf("Create EntityManagerFactory for %s with: %s", metadata.getScopedPersistenceUnitName(), key.keySet());
+                Map<String, Object> integration = new HashMap<String, Object>();
+                if (containerFactory != null && containerFactory.isOpen()) {
+                    integration.putAll(containerFactory.getProperties());
+                }
+                for (String name : DATASOURCE_PROPERTIES) {
+                    integration.remove(name);
+                }
+                boolean connectionOverride = isConnectionOverride(key);
+                if (connectionOverride) {
+                    integration.put(REGION_PREFIX, metadata.getScopedPersistenceUnitName() + "#" + (++factoryCount));
+                }
+                integration.putAll(key);
+                ClassLoader tccl = Thread.currentThread().getContextClassLoader();
+                try {
+                    Thread.currentThread().setContextClassLoader(metadata.getClassLoader());
+                    PersistenceUnitMetadata view = MetadataView.create(metadata, connectionOverride);
+                    emf = getPersistenceProvider().createContainerEntityManagerFactory(view, integration);
+                } finally {
+                    Thread.currentThread().setContextClassLoader(tccl);
+                }
+                factories.put(key, emf);
+            }
+            return emf;
+        }
+    }
+
+    /**
+     * Close all factories that were built for additional properties.
+     */
+    synchronized void close() {
+        for (EntityManagerFactory emf : factories.values()) {
+            if (emf.isOpen()) {
+                emf.close();
+            }
+        }
+        factories.clear();
+    }
+
+    private void purgeClosedFactories() {
+        Iterator<EntityManagerFactory> iterator = factories.values().iterator();
+        while (iterator.hasNext()) {
+            if (!iterator.next().isOpen()) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private static boolean isConnectionOverride(Map<String, Object> key) {
+        for (String name : key.keySet()) {
+            if (name.startsWith(JDBC_PREFIX) || name.startsWith(CONNECTION_PREFIX)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Drop null values and properties that the persistence unit already defines with the same value
+    private Map<String, Object> normalize(Map<String, Object> props) {
+        if (props == null || props.isEmpty())
+            return Collections.emptyMap();
+
+        Properties unitProperties = metadata.getProperties();
+        Map<String, Object> result = new TreeMap<String, Object>();
+        for (Entry<String, Object> entry : props.entrySet()) {
+            String name = entry.getKey();
+            Object value = entry.getValue();
+            if (name != null && value != null && (unitProperties == null || !value.equals(unitProperties.get(name)))) {
+                result.put(name, value);
+            }
+        }
+        return result;
+    }
+
+    private synchronized PersistenceProvider getPersistenceProvider() {
+        if (provider == null) {
+            String className = getProviderClassName();
+            ClassLoader tccl = Thread.currentThread().getContextClassLoader();
+            try {
+                Thread.currentThread().setContextClassLoader(metadata.getClassLoader());
+                for (PersistenceProvider candidate : PersistenceProviderResolverHolder.getPersistenceProviderResolver().getPersistenceProviders()) {
+                    if (className.equals(candidate.getClass().getName())) {
+                        provider = candidate;
+                        break;
+                    }
+                }
+            } finally {
+                Thread.currentThread().setContextClassLoader(tccl);
+            }
+            if (provider == null)
+                throw new PersistenceException(MESSAGES.cannotFindPersistenceProvider(className));
+        }
+        return provider;
+    }
+
+    /**
+     * A view of the container managed metadata with its own copy of the unit properties and without transformer registration.
+     * The view has no data sources if the connection settings are overridden.
+     */
+    private static final class MetadataView implements InvocationHandler {
+
+        private final PersistenceUnitMetadata metadata;
+        private final Properties properties = new Properties();
+        private final boolean connectionOverride;
+
+        static PersistenceUnitMetadata create(PersistenceUnitMetadata metadata, boolean connectionOverride) {
+            ClassLoader classLoader = MetadataView.class.getClassLoader();
+            Class<?>[] interfaces = new Class<?>[] { PersistenceUnitMetadata.class };
+            return (PersistenceUnitMetadata) Proxy.newProxyInstance(classLoader, interfaces, new MetadataView(metadata, connectionOverride));
+        }
+
+        private MetadataView(PersistenceUnitMetadata metadata, boolean connectionOverride) {
+            this.metadata = metadata;
+            this.connectionOverride = connectionOverride;
+            Properties unitProperties = metadata.getProperties();
+            if (unitProperties != null) {
+                properties.putAll(unitProperties);
+            }
+            if (connectionOverride) {
+                for (String name : DATASOURCE_PROPERTIES) {
+                    properties.remove(name);
+                }
+            }
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if ("getProperties".equals(name) && args == null) {
+                return properties;
+            } else if ("addTransformer".equals(name)) {
+                return null;
+            } else if (connectionOverride && ("getJtaDataSource".equals(name) || "getNonJtaDataSource".equals(name)) && args == null) {
+                return null;
+            } else if ("hashCode".equals(name) && args == null) {
+                return System.identityHashCode(proxy);
+            } else if ("equals".equals(name) && args != null && args.length == 1) {
+                return proxy == args[0];
+            }
+            try {
+                return method.invoke(metadata, args);
+            } catch (InvocationTargetException ex) {
+                throw ex.getCause();
+            }
+        }
+    }
+}
@@ -33,6 +33,9 @@ import org.jboss.as.server.DeploymentProcessorTarget;
 import org.jboss.as.server.deployment.Phase;
 import org.jboss.dmr.ModelNode;
 import org.jboss.msc.service.ServiceController;
+import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StopContext;
+import org.osgi.framework.BundleContext;
 
 /**
  * A JPA extension to the OSGi subsystem
@@ -42,6 +45,8 @@ import org.jboss.msc.service.ServiceController;
  */
 public class JPAExtension extends AbstractSubsystemExtension {
 
+    private final BundleStartedDispatcher dispatcher = new BundleStartedDispatcher();
+
     @Override
     public void performBoottime(final OperationContext context, final ModelNode operation, final ModelNode model,
             final ServiceVerificationHandler verificationHandler, final List<ServiceController<?>> newControllers) {
@@ -49,8 +54,18 @@ public class JPAExtension extends AbstractSubsystemExtension {
         context.addStep(new AbstractDeploymentChainStep() {
             @Override
             protected void execute(DeploymentProcessorTarget processorTarget) {
-                processorTarget.addDeploymentProcessor(OSGiExtension.SUBSYSTEM_NAME, Phase.INSTALL, Phase.INSTALL_PERSISTENCE_SERVICES, new PersistenceUnitProcessor());
+                processorTarget.addDeploymentProcessor(OSGiExtension.SUBSYSTEM_NAME, Phase.INSTALL, Phase.INSTALL_PERSISTENCE_SERVICES, new PersistenceUnitProcessor(dispatcher));
             }
         }, OperationContext.Stage.RUNTIME);
     }
+
+    @Override
+    public void startSystemServices(StartContext startContext, BundleContext systemContext) {
+        dispatcher.start(systemContext);
+    }
+
+    @Override
+    public void stopSystemServices(StopContext stopContext, BundleContext systemContext) {
+        dispatcher.stop(systemContext);
+    }
 }
@@ -26,14 +26,17 @@ import java.util.Hashtable;
 
 import javax.persistence.EntityManagerFactory;
 
+import org.jboss.as.jpa.config.PersistenceUnitMetadataHolder;
 import org.jboss.as.jpa.processor.JpaAttachments;
 import org.jboss.as.jpa.spi.PersistenceUnitService;
 import org.jboss.as.osgi.OSGiConstants;
 import org.jboss.as.server.deployment.AttachmentKey;
+import org.jboss.as.server.deployment.Attachments;
 import org.jboss.as.server.deployment.DeploymentPhaseContext;
 import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
 import org.jboss.as.server.deployment.DeploymentUnitProcessor;
+import org.jboss.as.server.deployment.module.ResourceRoot;
 import org.jboss.msc.service.Service;
 import org.jboss.msc.service.ServiceBuilder;
 import org.jboss.msc.service.ServiceController.Mode;
@@ -46,11 +49,9 @@ import org.jboss.msc.value.InjectedValue;
 import org.jboss.osgi.framework.spi.BundleManager;
 import org.jboss.osgi.resolver.XBundle;
 import org.jboss.osgi.resolver.XBundleRevision;
+import org.jipijapa.plugin.spi.PersistenceUnitMetadata;
 import org.osgi.framework.BundleContext;
-import org.osgi.framework.BundleEvent;
-import org.osgi.framework.BundleListener;
 import org.osgi.framework.ServiceRegistration;
-import org.osgi.framework.SynchronousBundleListener;
 import org.osgi.service.jpa.EntityManagerFactoryBuilder;
 
 /**
@@ -61,7 +62,16 @@ import org.osgi.service.jpa.EntityManagerFactoryBuilder;
  */
 public class PersistenceUnitProcessor implements DeploymentUnitProcessor {
 
-    private static AttachmentKey<BundleListener> BUNDLE_LISTENER_KEY = AttachmentKey.create(BundleListener.class);
+    private static AttachmentKey<Runnable> STARTED_CALLBACK_KEY = AttachmentKey.create(Runnable.class);
+
+    /** The service property for the implementation version of the persistence provider */
+    static final String JPA_UNIT_PROVIDER_VERSION = "osgi.unit.provider.version";
+
+    private final BundleStartedDispatcher dispatcher;
+
+    PersistenceUnitProcessor(BundleStartedDispatcher dispatcher) {
+        this.dispatcher = dispatcher;
+    }
 
     @Override
     public void deploy(final DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
@@ -71,26 +81,25 @@ public class PersistenceUnitProcessor implements DeploymentUnitProcessor {
         if (brev == null || puServiceName == null)
             return;
 
-        BundleContext syscontext = depUnit.getAttachment(OSGiConstants.SYSTEM_CONTEXT_KEY);
-        BundleListener listener = new SynchronousBundleListener() {
+        ResourceRoot deploymentRoot = depUnit.getAttachment(Attachments.DEPLOYMENT_ROOT);
+        final PersistenceUnitMetadataHolder metadataHolder = deploymentRoot.getAttachment(PersistenceUnitMetadataHolder.PERSISTENCE_UNITS);
+        Runnable callback = new Runnable() {
             @Override
-            public void bundleChanged(BundleEvent event) {
-                if (event.getBundle() == brev.getBundle() && event.getType() == BundleEvent.STARTED) {
-                    BundleManager bundleManager = depUnit.getAttachment(OSGiConstants.BUNDLE_MANAGER_KEY);
-                    EntityManagerFactoryRegistration.addService(phaseContext.getServiceTarget(), bundleManager, puServiceName, brev);
-                }
+            public void run() {
+                BundleManager bundleManager = depUnit.getAttachment(OSGiConstants.BUNDLE_MANAGER_KEY);
+                EntityManagerFactoryRegistration.addService(phaseContext.getServiceTarget(), bundleManager, puServiceName, brev, metadataHolder);
             }
         };
-        syscontext.addBundleListener(listener);
-        depUnit.putAttachment(BUNDLE_LISTENER_KEY, listener);
+        dispatcher.register(brev.getBundle(), callback);
+        depUnit.putAttachment(STARTED_CALLBACK_KEY, callback);
     }
 
     @Override
     public void undeploy(DeploymentUnit depUnit) {
-        BundleListener listener = depUnit.getAttachment(BUNDLE_LISTENER_KEY);
-        if (listener != null) {
-            BundleContext syscontext = depUnit.getAttachment(OSGiConstants.SYSTEM_CONTEXT_KEY);
-            syscontext.removeBundleListener(listener);
+        Runnable callback = depUnit.removeAttachment(STARTED_CALLBACK_KEY);
+        XBundleRevision brev = depUnit.getAttachment(OSGiConstants.BUNDLE_REVISION_KEY);
+        if (callback != null && brev != null) {
+            dispatcher.unregister(brev.getBundle(), callback);
         }
     }
 
@@ -98,19 +107,23 @@ public class PersistenceUnitProcessor implements DeploymentUnitProcessor {
 
         private final InjectedValue<PersistenceUnitService> injectedPersistenceUnitService = new InjectedValue<PersistenceUnitService>();
         private final XBundle bundle;
+        private final PersistenceUnitMetadataHolder metadataHolder;
         private ServiceRegistration<EntityManagerFactory> registration;
+        private ServiceRegistration<EntityManagerFactoryBuilder> builderRegistration;
+        private EntityManagerFactoryBuilderImpl factoryBuilder;
 
-        static void addService(ServiceTarget serviceTarget, BundleManager bundleManager, ServiceName puServiceName, XBundleRevision brev) {
+        static void addService(ServiceTarget serviceTarget, BundleManager bundleManager, ServiceName puServiceName, XBundleRevision brev, PersistenceUnitMetadataHolder metadataHolder) {
             ServiceName serviceName = puServiceName.append(EntityManagerFactory.class.getSimpleName());
-            EntityManagerFactoryRegistration service = new EntityManagerFactoryRegistration(brev.getBundle());
+            EntityManagerFactoryRegistration service = new EntityManagerFactoryRegistration(brev.getBundle(), metadataHolder);
             ServiceBuilder<ServiceRegistration<EntityManagerFactory>> builder = serviceTarget.addService(serviceName, service);
             builder.addDependency(puServiceName, PersistenceUnitService.class, service.injectedPersistenceUnitService);
             builder.setInitialMode(Mode.PASSIVE);
             builder.install();
         }
 
-        private EntityManagerFactoryRegistration(XBundle bundle) {
+        private EntityManagerFactoryRegistration(XBundle bundle, PersistenceUnitMetadataHolder metadataHolder) {
             this.bundle = bundle;
+            this.metadataHolder = metadataHolder;
         }
 
         @Override
@@ -118,11 +131,24 @@ public class PersistenceUnitProcessor implements DeploymentUnitProcessor {
             BundleContext bundleContext = bundle.getBundleContext();
             PersistenceUnitService puService = injectedPersistenceUnitService.getValue();
             EntityManagerFactory emf = puService.getEntityManagerFactory();
+            String unitName = puService.getScopedPersistenceUnitName();
             Dictionary<String, Object> properties = new Hashtable<String, Object>();
-            properties.put(EntityManagerFactoryBuilder.JPA_UNIT_NAME, puService.getScopedPersistenceUnitName());
-            // [TODO] unit version/provider
-            properties.put(EntityManagerFactoryBuilder.JPA_UNIT_VERSION, "unknown");
-            properties.put(EntityManagerFactoryBuilder.JPA_UNIT_PROVIDER, "unknown");
+            properties.put(EntityManagerFactoryBuilder.JPA_UNIT_NAME, unitName);
+            properties.put(EntityManagerFactoryBuilder.JPA_UNIT_VERSION, bundle.getVersion().toString());
+
+            // Register the builder that shares the metadata of the container managed unit
+            PersistenceUnitMetadata metadata = getPersistenceUnitMetadata(unitName);
+            if (metadata != null) {
+                factoryBuilder = new EntityManagerFactoryBuilderImpl(metadata, emf);
+                properties.put(EntityManagerFactoryBuilder.JPA_UNIT_PROVIDER, factoryBuilder.getProviderClassName());
+                String providerVersion = factoryBuilder.getProviderVersion();
+                if (providerVersion != null) {
+                    properties.put(JPA_UNIT_PROVIDER_VERSION, providerVersion);
+                }
+                builderRegistration = bundleContext.registerService(EntityManagerFactoryBuilder.class, factoryBuilder, properties);
+            } else {
+                properties.put(EntityManagerFactoryBuilder.JPA_UNIT_PROVIDER, EntityManagerFactoryBuilderImpl.DEFAULT_PROVIDER);
+            }
             registration = bundleContext.registerService(EntityManagerFactory.class, emf, properties);
         }
 
@@ -132,11 +158,30 @@ public class PersistenceUnitProcessor implements DeploymentUnitProcessor {
                 registration.unregister();
                 registration = null;
             }
+            if (builderRegistration != null) {
+                builderRegistration.unregister();
+                builderRegistration = null;
+            }
+            if (factoryBuilder != null) {
+                factoryBuilder.close();
+                factoryBuilder = null;
+            }
         }
 
         @Override
         public ServiceRegistration<EntityManagerFactory> getValue() throws IllegalStateException, IllegalArgumentException {
             return registration;
         }
+
+        private PersistenceUnitMetadata getPersistenceUnitMetadata(String scopedName) {
+            if (metadataHolder != null) {
+                for (PersistenceUnitMetadata metadata : metadataHolder.getPersistenceUnits()) {
+                    if (scopedName.equals(metadata.getScopedPersistenceUnitName())) {
+                        return metadata;
+                    }
+                }
+            }
+            return null;
+        }
     }
-}
\ No newline at end of file
+}
@@ -22,33 +22,24 @@
 package org.jboss.as.osgi.naming;
 
 import static org.jboss.as.osgi.OSGiLogger.LOGGER;
-import static org.jboss.as.server.deployment.Attachments.COMPOSITE_ANNOTATION_INDEX;
 
 import java.util.Arrays;
-import java.util.List;
-
-import javax.annotation.Resource;
 
 import org.jboss.as.naming.ManagedReferenceFactory;
+import org.jboss.as.osgi.OSGiConstants;
+import org.jboss.as.osgi.deployment.OSGiAnnotationSummary;
 import org.jboss.as.server.deployment.AttachmentKey;
 import org.jboss.as.server.deployment.Attachments;
 import org.jboss.as.server.deployment.DeploymentPhaseContext;
 import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
 import org.jboss.as.server.deployment.DeploymentUnitProcessor;
-import org.jboss.as.server.deployment.annotation.CompositeIndex;
 import org.jboss.as.server.deployment.module.ModuleDependency;
 import org.jboss.as.server.deployment.module.ModuleSpecification;
-import org.jboss.jandex.AnnotationInstance;
-import org.jboss.jandex.AnnotationTarget;
-import org.jboss.jandex.DotName;
-import org.jboss.jandex.FieldInfo;
-import org.jboss.jandex.Type;
 import org.jboss.modules.Module;
 import org.jboss.modules.ModuleIdentifier;
 import org.jboss.modules.ModuleLoader;
 import org.jboss.msc.service.ServiceName;
-import org.osgi.framework.BundleContext;
 
 /**
  * Detect @Resource BundleContext injection point and creates the appropriate module dependencies.
@@ -65,31 +56,14 @@ public class BundleContextBindingProcessor implements DeploymentUnitProcessor {
     public void deploy(DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
 
         DeploymentUnit depUnit = phaseContext.getDeploymentUnit();
-        CompositeIndex compositeIndex = depUnit.getAttachment(COMPOSITE_ANNOTATION_INDEX);
-        if (compositeIndex == null) {
+        OSGiAnnotationSummary summary = depUnit.getAttachment(OSGiConstants.ANNOTATION_SUMMARY_KEY);
+        if (summary == null) {
             LOGGER.warnCannotFindAnnotationIndex(depUnit);
             return;
         }
 
         // Check if we have a BundleContext injection point
-        boolean hasBundleContextResource = false;
-        DotName resourceDotName = DotName.createSimple(Resource.class.getName());
-        DotName targetDotName = DotName.createSimple(BundleContext.class.getName());
-        List<AnnotationInstance> anList = compositeIndex.getAnnotations(resourceDotName);
-        for (AnnotationInstance an : anList) {
-            AnnotationTarget anTarget = an.target();
-            if (anTarget instanceof FieldInfo) {
-                FieldInfo fieldInfo = (FieldInfo) anTarget;
-                Type targetType = fieldInfo.type();
-                if (targetType.name().equals(targetDotName)) {
-                    hasBundleContextResource = true;
-                    break;
-                }
-            }
-            // [TODO] Method injection
-        }
-
-        if (hasBundleContextResource) {
+        if (summary.hasBundleContextResource()) {
             ModuleLoader moduleLoader = Module.getBootModuleLoader();
             ModuleSpecification moduleSpecification = depUnit.getAttachment(Attachments.MODULE_SPECIFICATION);
             ModuleDependency coreDep = new ModuleDependency(moduleLoader, ORG_OSGI_CORE, false, false, false, false);
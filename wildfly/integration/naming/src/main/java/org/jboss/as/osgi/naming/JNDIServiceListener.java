@@ -21,15 +21,20 @@
  */
 package org.jboss.as.osgi.naming;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.naming.spi.ObjectFactory;
 
 import org.jboss.as.naming.InitialContext;
 import org.osgi.framework.BundleContext;
-import org.osgi.framework.Constants;
 import org.osgi.framework.InvalidSyntaxException;
 import org.osgi.framework.ServiceEvent;
 import org.osgi.framework.ServiceListener;
@@ -38,6 +43,10 @@ import org.osgi.framework.ServiceReference;
 /**
  * Registers OSGi Services under the osgi.jndi.url.scheme
  *
+ * Every {@link ObjectFactory} service is obtained once when it is registered and released when it goes away.
+ * If several services provide the same scheme, the one with the highest ranking is bound in the {@link InitialContext}.
+ * When it goes away, the next one takes its place.
+ *
  * @author David Bosschaert
  * @author Thomas.Diesler@jboss.com
  * @since 31-Jul-2012
@@ -47,6 +56,9 @@ final class JNDIServiceListener implements ServiceListener {
     private static final String OSGI_JNDI_URL_SCHEME = "osgi.jndi.url.scheme";
 
     private final BundleContext bundleContext;
+    private final ConcurrentMap<ServiceReference, Registration> registrations = new ConcurrentHashMap<ServiceReference, Registration>();
+    // The registrations for every scheme in ranking order, guarded by this. The first one is bound.
+    private final Map<String, List<Registration>> schemeRegistrations = new HashMap<String, List<Registration>>();
 
     public JNDIServiceListener(BundleContext bundleContext) {
         this.bundleContext = bundleContext;
@@ -55,7 +67,7 @@ final class JNDIServiceListener implements ServiceListener {
             ServiceReference[] refs = bundleContext.getServiceReferences(ObjectFactory.class.getName(), null);
             if (refs != null) {
                 for (ServiceReference ref : refs) {
-                    handleJNDIRegistration(ref, true);
+                    registerFactory(ref);
                 }
             }
         } catch (InvalidSyntaxException ex) {
@@ -68,25 +80,89 @@ final class JNDIServiceListener implements ServiceListener {
         ServiceReference ref = event.getServiceReference();
         switch (event.getType()) {
             case ServiceEvent.REGISTERED:
-                handleJNDIRegistration(ref, true);
+                registerFactory(ref);
                 break;
             case ServiceEvent.UNREGISTERING:
-                handleJNDIRegistration(ref, false);
+                unregisterFactory(ref);
                 break;
         }
     }
 
-    private void handleJNDIRegistration(ServiceReference ref, boolean register) {
-        String[] objClasses = (String[]) ref.getProperty(Constants.OBJECTCLASS);
-        for (String objClass : objClasses) {
-            if (ObjectFactory.class.getName().equals(objClass)) {
-                for (String scheme : getStringPlusProperty(ref.getProperty(OSGI_JNDI_URL_SCHEME))) {
-                    if (register)
-                        InitialContext.addUrlContextFactory(scheme, (ObjectFactory) bundleContext.getService(ref));
-                    else
-                        InitialContext.removeUrlContextFactory(scheme, (ObjectFactory) bundleContext.getService(ref));
+    /**
+     * Remove all URL context factories and release the associated services.
+     */
+    void unregisterAll() {
+        for (ServiceReference ref : registrations.keySet()) {
+            unregisterFactory(ref);
+        }
+    }
+
+    private void registerFactory(ServiceReference ref) {
+        Collection<String> schemes = getStringPlusProperty(ref.getProperty(OSGI_JNDI_URL_SCHEME));
+        if (schemes.isEmpty() || registrations.containsKey(ref))
+            return;
+
+        ObjectFactory factory = (ObjectFactory) bundleContext.getService(ref);
+        if (factory == null)
+            return;
+
+        Registration reg = new Registration(ref, schemes, factory);
+        if (registrations.putIfAbsent(ref, reg) != null) {
+            // Registered concurrently, release the additional use count
+            bundleContext.ungetService(ref);
+            return;
+        }
+        bindSchemes(reg);
+    }
+
+    private void unregisterFactory(ServiceReference ref) {
+        Registration reg = registrations.remove(ref);
+        if (reg == null)
+            return;
+
+        unbindSchemes(reg);
+        bundleContext.ungetService(ref);
+    }
+
+    private synchronized void bindSchemes(Registration reg) {
+        for (String scheme : reg.schemes) {
+            List<Registration> regs = schemeRegistrations.get(scheme);
+            if (regs == null) {
+                regs = new ArrayList<Registration>();
+                schemeRegistrations.put(scheme, regs);
+            }
+            Registration bound = regs.isEmpty() ? null : regs.get(0);
+            int index = 0;
+            while (index < regs.size() && regs.get(index).ref.compareTo(reg.ref) > 0) {
+                index++;
+            }
+            regs.add(index, reg);
+            if (index == 0) {
+                if (bound != null) {
+                    InitialContext.removeUrlContextFactory(scheme, bound.factory);
+                }
+                InitialContext.addUrlContextFactory(scheme, reg.factory);
+            }
+        }
+    }
+
+    private synchronized void unbindSchemes(Registration reg) {
+        for (String scheme : reg.schemes) {
+            List<Registration> regs = schemeRegistrations.get(scheme);
+            if (regs == null || regs.isEmpty())
+                continue;
+
+            boolean bound = regs.get(0) == reg;
+            regs.remove(reg);
+            if (bound) {
+                InitialContext.removeUrlContextFactory(scheme, reg.factory);
+                if (!regs.isEmpty()) {
+                    InitialContext.addUrlContextFactory(scheme, regs.get(0).factory);
                 }
             }
+            if (regs.isEmpty()) {
+                schemeRegistrations.remove(scheme);
+            }
         }
     }
 
@@ -101,4 +177,16 @@ final class JNDIServiceListener implements ServiceListener {
         }
         return Collections.emptyList();
     }
-}
\ No newline at end of file
+
+    private static final class Registration {
+        private final ServiceReference ref;
+        private final Collection<String> schemes;
+        private final ObjectFactory factory;
+
+        Registration(ServiceReference ref, Collection<String> schemes, ObjectFactory factory) {
+            this.ref = ref;
+            this.schemes = schemes;
+            this.factory = factory;
+        }
+    }
+}
@@ -29,6 +29,7 @@ import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.OperationStepHandler;
 import org.jboss.as.controller.ServiceVerificationHandler;
+import org.jboss.as.naming.InitialContext;
 import org.jboss.as.naming.InitialContextFactoryBuilder;
 import org.jboss.as.naming.NamingStore;
 import org.jboss.as.naming.service.NamingService;
@@ -60,6 +61,7 @@ public class NamingExtension extends AbstractSubsystemExtension {
 
     private final InjectedValue<NamingStore> injectedNamingStore = new InjectedValue<NamingStore>();
     private JNDIServiceListener jndiServiceListener;
+    private ServiceURLContextFactory serviceURLContextFactory;
 
     @Override
     public void performBoottime(final OperationContext context, final ModelNode operation, final ModelNode model, final ServiceVerificationHandler verificationHandler, final List<ServiceController<?>> newControllers) {
@@ -101,12 +103,25 @@ public class NamingExtension extends AbstractSubsystemExtension {
         } catch (InvalidSyntaxException e) {
             // ignore
         }
+
+        // Register the osgi:service URL context factory
+        serviceURLContextFactory = new ServiceURLContextFactory(systemContext);
+        systemContext.addServiceListener(serviceURLContextFactory);
+        InitialContext.addUrlContextFactory(ServiceURLContextFactory.URL_SCHEME, serviceURLContextFactory);
     }
 
     @Override
     public void stopSystemServices(StopContext stopContext, BundleContext systemContext) {
         if (jndiServiceListener != null) {
             systemContext.removeServiceListener(jndiServiceListener);
+            jndiServiceListener.unregisterAll();
+            jndiServiceListener = null;
+        }
+        if (serviceURLContextFactory != null) {
+            InitialContext.removeUrlContextFactory(ServiceURLContextFactory.URL_SCHEME, serviceURLContextFactory);
+            systemContext.removeServiceListener(serviceURLContextFactory);
+            serviceURLContextFactory.clear();
+            serviceURLContextFactory = null;
         }
     }
 }
@@ -0,0 +1,202 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.osgi.naming;
+
+import static org.jboss.as.osgi.OSGiLogger.LOGGER;
+import static org.jboss.as.osgi.OSGiMessages.MESSAGES;
+
+import java.util.Hashtable;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.naming.Context;
+import javax.naming.InvalidNameException;
+import javax.naming.Name;
+import javax.naming.NameNotFoundException;
+import javax.naming.NamingException;
+import javax.naming.spi.ObjectFactory;
+
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.Constants;
+import org.osgi.framework.InvalidSyntaxException;
+import org.osgi.framework.ServiceEvent;
+import org.osgi.framework.ServiceListener;
+import org.osgi.framework.ServiceReference;
+
+/**
+ * The URL context factory for the {@code osgi:service/<interface>/<filter>} scheme.
+ *
+ * Lookups are resolved against the OSGi service registry. The results are cached per interface and filter,
+ * including lookups that did not find a service. Every service event invalidates the cached entries for the
+ * interfaces of the affected service.
+ *
+ * @since 17-Oct-2026
+ */
+final class ServiceURLContextFactory implements ObjectFactory, ServiceListener {
+
+    static final String URL_SCHEME = "osgi";
+    static final String SERVICE_PREFIX = URL_SCHEME + ":service/";
+
+    /** The maximum number of cached lookups */
+    static final int MAX_ENTRIES = 1024;
+
+    private final BundleContext bundleContext;
+    private final ConcurrentMap<String, ConcurrentMap<String, CacheEntry>> cache = new ConcurrentHashMap<String, ConcurrentMap<String, CacheEntry>>();
+    private final AtomicInteger cacheSize = new AtomicInteger();
+    private final AtomicLong modCount = new AtomicLong();
+
+    ServiceURLContextFactory(BundleContext bundleContext) {
+        this.bundleContext = bundleContext;
+    }
+
+    @Override
+    public Object getObjectInstance(Object obj, Name name, Context nameCtx, Hashtable<?, ?> environment) throws Exception {
+        return new ServiceURLContext(this, environment);
+    }
+
+    @Override
+    public void serviceChanged(ServiceEvent event) {
+        modCount.incrementAndGet();
+        String[] objClasses = (String[]) event.getServiceReference().getProperty(Constants.OBJECTCLASS);
+        if (objClasses != null) {
+            for (String objClass : objClasses) {
+                invalidate(cache.remove(objClass));
+            }
+        }
+    }
+
+    /**
+     * Lookup the highest ranking service for the given {@code osgi:service/<interface>/<filter>} name.
+     */
+    Object lookup(String name) throws NamingException {
+        String path = name.startsWith(SERVICE_PREFIX) ? name.substring(SERVICE_PREFIX.length()) : null;
+        if (path == null || path.isEmpty())
+            throw new InvalidNameException(MESSAGES.invalidServiceURL(name));
+
+        int index = path.indexOf('/');
+        String className = index < 0 ? path : path.substring(0, index);
+        String filter = index < 0 || index == path.length() - 1 ? "" : path.substring(index + 1);
+
+        ConcurrentMap<String, CacheEntry> entries = cache.get(className);
+        CacheEntry entry = entries != null ? entries.get(filter) : null;
+        if (entry == null) {
+            entry = createEntry(className, filter);
+        }
+        if (entry.service == null)
+            throw new NameNotFoundException(MESSAGES.cannotFindService(name));
+
+        return entry.service;
+    }
+
+    /**
+     * Release all cached services.
+     */
+    void clear() {
+        modCount.incrementAndGet();
+        for (String className : cache.keySet()) {
+            invalidate(cache.remove(className));
+        }
+    }
+
+    private CacheEntry createEntry(String className, String filter) throws NamingException {
+        long startCount = modCount.get();
+        ServiceReference[] refs;
+        try {
+            refs = bundleContext.getServiceReferences(className, filter.isEmpty() ? null : filter);
+        } catch (InvalidSyntaxException ex) {
+            NamingException nex = new InvalidNameException(MESSAGES.invalidServiceURL(SERVICE_PREFIX + className + "/" + filter));
+            nex.setRootCause(ex);
+            throw nex;
+        }
+
+        // The highest ranking reference compares greatest
+        ServiceReference sref = null;
+        if (refs != null) {
+            for (ServiceReference ref : refs) {
+                if (sref == null || ref.compareTo(sref) > 0) {
+                    sref = ref;
+                }
+            }
+        }
+        Object service = sref != null ? bundleContext.getService(sref) : null;
+        CacheEntry entry = new CacheEntry(service != null ? sref : null, service);
+
+        // Only cache the entry if no service event was seen in the meantime
+        boolean cached = false;
+        if (startCount == modCount.get() && cacheSize.get() < MAX_ENTRIES) {
+            ConcurrentMap<String, CacheEntry> entries = cache.get(className);
+            if (entries == null) {
+                ConcurrentMap<String, CacheEntry> newEntries = new ConcurrentHashMap<String, CacheEntry>();
+                entries = cache.putIfAbsent(className, newEntries);
+                if (entries == null) {
+                    entries = newEntries;
+                }
+            }
+            if (entries.putIfAbsent(filter, entry) == null) {
+                cacheSize.incrementAndGet();
+                cached = true;
+                // An event may have removed the entries from the cache while we added to them
+                if (startCount != modCount.get() || cache.get(className) != entries) {
+                    if (entries.remove(filter, entry)) {
+                        cacheSize.decrementAndGet();
+                        cached = false;
+                    }
+                }
+            }
+        }
+        // An uncached service is returned without holding on to it
+        if (!cached && entry.reference != null) {
+            bundleContext.ungetService(entry.reference);
+        }
+        LOGGER.tracef("OSGi service lookup %s/%s => %s", className, filter, sref);
+        return entry;
+    }
+
+    private void invalidate(Map<String, CacheEntry> entries) {
+        if (entries == null)
+            return;
+
+        for (String filter : entries.keySet()) {
+            CacheEntry entry = entries.remove(filter);
+            if (entry != null) {
+                cacheSize.decrementAndGet();
+                if (entry.reference != null) {
+                    bundleContext.ungetService(entry.reference);
+                }
+            }
+        }
+    }
+
+    private static final class CacheEntry {
+        private final ServiceReference reference;
+        private final Object service;
+
+        CacheEntry(ServiceReference reference, Object service) {
+            this.reference = reference;
+            this.service = service;
+        }
+    }
+}
@@ -32,7 +32,6 @@ import org.jboss.osgi.framework.spi.DeploymentProviderPlugin;
 import org.jboss.osgi.framework.spi.IntegrationConstants;
 import org.jboss.osgi.framework.spi.StorageState;
 import org.jboss.osgi.metadata.OSGiMetaData;
-import org.jboss.osgi.metadata.OSGiMetaDataBuilder;
 import org.jboss.osgi.vfs.VirtualFile;
 import org.osgi.framework.BundleException;
 
@@ -75,7 +74,7 @@ public class DeploymentProviderIntegration extends DeploymentProviderPlugin {
                 return defaultHandler.createDeployment(location, rootFile);
 
             Manifest manifest = WebBundleURIParser.parse(location);
-            OSGiMetaData metadata = OSGiMetaDataBuilder.load(manifest);
+            OSGiMetaData metadata = WebBundleURIParser.parseMetaData(location);
             String symbolicName = metadata.getBundleSymbolicName();
 
             Deployment dep = DeploymentFactory.createDeployment(rootFile, location, symbolicName, null);
@@ -0,0 +1,350 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.osgi.web;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.jboss.as.osgi.OSGiLogger;
+import org.jboss.vfs.VFS;
+import org.jboss.vfs.VFSUtils;
+import org.jboss.vfs.VirtualFile;
+
+/**
+ * A disk cache of exploded Web Application Bundle content.
+ *
+ * The exploded content is keyed by the hash of the deployment content, so that it can be reused by later deployments
+ * of the same content and across server restarts. Every entry is reference counted by the mounts that use it.
+ * Unused entries are evicted in least recently used order once the exploded content exceeds the configured size.
+ *
+ * @since 17-Oct-2026
+ */
+final class ExplodedContentCache {
+
+    /** The system property that defines the size of the cache in bytes */
+    static final String PROPERTY_CACHE_SIZE = "org.jboss.osgi.web.exploded.cache.size";
+    static final long DEFAULT_CAPACITY = 1024L * 1024 * 1024;
+
+    private static final String INFO_SUFFIX = ".properties";
+    private static final String PROPERTY_SIZE = "size";
+
+    private final File cacheDir;
+    private final long capacity;
+    private final Map<String, Entry> entries = new HashMap<String, Entry>();
+
+    ExplodedContentCache(File cacheDir, long capacity) {
+        this.cacheDir = cacheDir;
+        this.capacity = capacity;
+        loadEntries();
+    }
+
+    /**
+     * Mount the exploded content of the given archive at the given mount point.
+     *
+     * The returned handle releases the cache entry when it is closed.
+     */
+    Closeable mountExploded(VirtualFile contents, VirtualFile mountPoint) throws IOException {
+        File archive = contents.getPhysicalFile();
+        final String hash = getContentHash(archive);
+        File explodedDir = acquire(hash, archive);
+        final Closeable handle;
+        try {
+            handle = VFS.mountReal(explodedDir, mountPoint);
+        } catch (IOException ex) {
+            release(hash);
+            throw ex;
+        }
+        return new Closeable() {
+            private boolean closed;
+
+            @Override
+            public synchronized void close() throws IOException {
+                if (!closed) {
+                    closed = true;
+                    VFSUtils.safeClose(handle);
+                    release(hash);
+                }
+            }
+        };
+    }
+
+    private File acquire(String hash, File archive) throws IOException {
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(hash);
+            if (entry == null) {
+                entry = new Entry(hash);
+                entries.put(hash, entry);
+            }
+            entry.refCount++;
+        }
+        try {
+            entry.explode(archive);
+        } catch (IOException ex) {
+            release(hash);
+            throw ex;
+        }
+        evictEntries();
+        return entry.explodedDir;
+    }
+
+    private synchronized void release(String hash) {
+        Entry entry = entries.get(hash);
+        if (entry != null && entry.refCount > 0) {
+            entry.refCount--;
+        }
+        evictEntries();
+    }
+
+    private synchronized void evictEntries() {
+        long size = 0;
+        List<Entry> candidates = new ArrayList<Entry>();
+        for (Entry entry : entries.values()) {
+            size += entry.size;
+            if (entry.refCount == 0) {
+                candidates.add(entry);
+            }
+        }
+        if (size <= capacity)
+            return;
+
+        Collections.sort(candidates, new Comparator<Entry>() {
+            @Override
+            public int compare(Entry e1, Entry e2) {
+                return Long.compare(e1.getLastUsed(), e2.getLastUsed());
+            }
+        });
+        for (Entry entry : candidates) {
+            if (size <= capacity)
+                break;
+            OSGiLogger.LOGGER.debugf("Evict exploded content: %s", entry.explodedDir);
+            size -= entry.size;
+            entries.remove(entry.hash);
+            entry.delete();
+        }
+    }
+
+    private void loadEntries() {
+        File[] files = cacheDir.listFiles();
+        if (files == null)
+            return;
+
+        for (File file : files) {
+            String name = file.getName();
+            if (file.isFile() && name.endsWith(INFO_SUFFIX)) {
+                Entry entry = new Entry(name.substring(0, name.length() - INFO_SUFFIX.length()));
+                if (entry.load()) {
+                    entries.put(entry.hash, entry);
+                }
+            }
+        }
+        // Remove content that was not completely exploded
+        for (File file : files) {
+            if (file.isDirectory() && !entries.containsKey(file.getName())) {
+                deleteRecursive(file);
+            }
+        }
+        evictEntries();
+    }
+
+    /**
+     * Get the hash of the given deployment content.
+     *
+     * Content from the server content repository is stored under its SHA-1 hash already. Other content is hashed.
+     */
+    static String getContentHash(File archive) throws IOException {
+        File hashDir = archive.getParentFile();
+        File prefixDir = hashDir != null ? hashDir.getParentFile() : null;
+        if ("content".equals(archive.getName()) && prefixDir != null) {
+            String hash = prefixDir.getName() + hashDir.getName();
+            if (hash.length() == 40 && hash.matches("[0-9a-f]+")) {
+                return hash;
+            }
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            InputStream input = new FileInputStream(archive);
+            try {
+                byte[] bytes = new byte[8192];
+                int r = input.read(bytes);
+                while (r > 0) {
+                    digest.update(bytes, 0, r);
+                    r = input.read(bytes);
+                }
+            } finally {
+                input.close();
+            }
+            StringBuilder builder = new StringBuilder();
+            for (byte b : digest.digest()) {
+                builder.append(String.format("%02x", b & 0xff));
+            }
+            return builder.toString();
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static long explode(File archive, File targetDir) throws IOException {
+        String targetPath = targetDir.getCanonicalPath() + File.separator;
+        long size = 0;
+        ZipFile zipFile = new ZipFile(archive);
+        try {
+            Enumeration<? extends ZipEntry> zipEntries = zipFile.entries();
+            while (zipEntries.hasMoreElements()) {
+                ZipEntry zipEntry = zipEntries.nextElement();
+                File target = new File(targetDir, zipEntry.getName());
+                if (!target.getCanonicalPath().startsWith(targetPath)) {
+                    throw new IOException("Invalid entry: " + zipEntry.getName());
+                }
+                if (zipEntry.isDirectory()) {
+                    target.mkdirs();
+                    continue;
+                }
+                target.getParentFile().mkdirs();
+                InputStream input = zipFile.getInputStream(zipEntry);
+                OutputStream output = new FileOutputStream(target);
+                try {
+                    VFSUtils.copyStream(input, output);
+                } finally {
+                    VFSUtils.safeClose(input);
+                    output.close();
+                }
+                if (zipEntry.getTime() != -1) {
+                    target.setLastModified(zipEntry.getTime());
+                }
+                size += target.length();
+            }
+        } finally {
+            zipFile.close();
+        }
+        return size;
+    }
+
+    private static void deleteRecursive(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                deleteRecursive(child);
+            }
+        }
+        file.delete();
+    }
+
+    private final class Entry {
+        private final String hash;
+        private final File explodedDir;
+        private final File infoFile;
+        private volatile long size;
+        private int refCount;
+        private boolean exploded;
+
+        Entry(String hash) {
+            this.hash = hash;
+            this.explodedDir = new File(cacheDir, hash);
+            this.infoFile = new File(cacheDir, hash + INFO_SUFFIX);
+        }
+
+        long getLastUsed() {
+            return infoFile.lastModified();
+        }
+
+        boolean load() {
+            Properties props = new Properties();
+            try {
+                InputStream input = new FileInputStream(infoFile);
+                try {
+                    props.load(input);
+                } finally {
+                    input.close();
+                }
+                size = Long.parseLong(props.getProperty(PROPERTY_SIZE));
+            } catch (Exception ex) {
+                OSGiLogger.LOGGER.debugf(ex, "Cannot load exploded content info: %s", infoFile);
+            }
+            exploded = size > 0 && explodedDir.isDirectory();
+            if (!exploded) {
+                infoFile.delete();
+            }
+            return exploded;
+        }
+
+        synchronized void explode(File archive) throws IOException {
+            if (exploded) {
+                infoFile.setLastModified(System.currentTimeMillis());
+                return;
+            }
+            File tmpDir = new File(cacheDir, hash + ".tmp");
+            deleteRecursive(tmpDir);
+            deleteRecursive(explodedDir);
+            if (!tmpDir.mkdirs()) {
+                throw new IOException("Cannot create: " + tmpDir);
+            }
+            long startTime = System.currentTimeMillis();
+            try {
+                size = explode(archive, tmpDir);
+                if (!tmpDir.renameTo(explodedDir)) {
+                    throw new IOException("Cannot rename to: " + explodedDir);
+                }
+                Properties props = new Properties();
+                props.setProperty(PROPERTY_SIZE, String.valueOf(size));
+                OutputStream output = new FileOutputStream(infoFile);
+                try {
+                    props.store(output, archive.getPath());
+                } finally {
+                    output.close();
+                }
+            } catch (IOException ex) {
+                deleteRecursive(tmpDir);
+                deleteRecursive(explodedDir);
+                size = 0;
+                throw ex;
+            }
+            exploded = true;
+            OSGiLogger.LOGGER.debugf("Exploded %s to %s in %dms", archive, explodedDir, System.currentTimeMillis() - startTime);
+        }
+
+        synchronized void delete() {
+            exploded = false;
+            size = 0;
+            infoFile.delete();
+            deleteRecursive(explodedDir);
+        }
+    }
+}
@@ -23,9 +23,13 @@
 package org.jboss.as.osgi.web;
 
 import java.io.Closeable;
+import java.io.File;
 import java.io.IOException;
 import java.util.jar.Manifest;
 
+import org.jboss.as.osgi.OSGiLogger;
+import org.jboss.as.server.ServerEnvironment;
+import org.jboss.as.server.ServerEnvironmentService;
 import org.jboss.as.server.deployment.Attachments;
 import org.jboss.as.server.deployment.DeploymentMountProvider;
 import org.jboss.as.server.deployment.DeploymentPhaseContext;
@@ -39,6 +43,8 @@ import org.jboss.as.server.deployment.module.MountHandle;
 import org.jboss.as.server.deployment.module.ResourceRoot;
 import org.jboss.as.server.logging.ServerLogger;
 import org.jboss.as.web.common.WebApplicationBundleUtils;
+import org.jboss.msc.service.ServiceController;
+import org.jboss.msc.service.ServiceRegistry;
 import org.jboss.vfs.VFS;
 import org.jboss.vfs.VFSUtils;
 import org.jboss.vfs.VirtualFile;
@@ -46,6 +52,8 @@ import org.jboss.vfs.VirtualFile;
 /**
  * Processor that remounts a deployment exploded.
  *
+ * Archives are exploded into the {@link ExplodedContentCache}, so that the same content is only extracted once.
+ *
  * @author Thomas.Diesler@jboss.com
  * @since  11-Sep-2012
  *
@@ -53,6 +61,10 @@ import org.jboss.vfs.VirtualFile;
  */
 public class RemountDeploymentRootProcessor implements DeploymentUnitProcessor {
 
+    static final String CACHE_DIR_NAME = "osgi-exploded";
+
+    private ExplodedContentCache explodedCache;
+
     @Override
     public void deploy(final DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
         DeploymentUnit depUnit = phaseContext.getDeploymentUnit();
@@ -75,7 +87,12 @@ public class RemountDeploymentRootProcessor implements DeploymentUnitProcessor {
 
         MountHandle mountHandle;
         try {
-            handle = deploymentMountProvider.mountDeploymentContent(deploymentContents, deploymentRoot, MountType.EXPANDED);
+            ExplodedContentCache cache = getExplodedCache(phaseContext.getServiceRegistry());
+            if (cache != null && deploymentContents.isFile()) {
+                handle = cache.mountExploded(deploymentContents, deploymentRoot);
+            } else {
+                handle = deploymentMountProvider.mountDeploymentContent(deploymentContents, deploymentRoot, MountType.EXPANDED);
+            }
             mountHandle = new MountHandle(handle);
         } catch (IOException e) {
             VFSUtils.safeClose(handle);
@@ -89,6 +106,33 @@ public class RemountDeploymentRootProcessor implements DeploymentUnitProcessor {
         depUnit.putAttachment(Attachments.DEPLOYMENT_ROOT, resourceRoot);
     }
 
+    private synchronized ExplodedContentCache getExplodedCache(ServiceRegistry serviceRegistry) {
+        if (explodedCache == null) {
+            ServiceController<?> controller = serviceRegistry.getService(ServerEnvironmentService.SERVICE_NAME);
+            ServerEnvironment serverEnvironment = controller != null ? (ServerEnvironment) controller.getValue() : null;
+            if (serverEnvironment != null) {
+                File cacheDir = new File(serverEnvironment.getServerDataDir(), CACHE_DIR_NAME);
+                explodedCache = new ExplodedContentCache(cacheDir, getCacheCapacity());
+            }
+        }
+        return explodedCache;
+    }
+
+    private static long getCacheCapacity() {
+        String capacity = System.getProperty(ExplodedContentCache.PROPERTY_CACHE_SIZE);
+        if (capacity != null) {
+            try {
+                long value = Long.parseLong(capacity.trim());
+                if (value >= 0)
+                    return value;
+            } catch (NumberFormatException ex) {
+                // fall through
+            }
+            OSGiLogger.LOGGER.warnInvalidPropertyValue(capacity, ExplodedContentCache.PROPERTY_CACHE_SIZE, ExplodedContentCache.DEFAULT_CAPACITY);
+        }
+        return ExplodedContentCache.DEFAULT_CAPACITY;
+    }
+
     @Override
     public void undeploy(final DeploymentUnit depUnit) {
     }
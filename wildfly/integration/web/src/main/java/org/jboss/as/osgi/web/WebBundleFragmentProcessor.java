@@ -21,8 +21,27 @@
  */
 package org.jboss.as.osgi.web;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.zip.CRC32;
 
 import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamException;
@@ -39,6 +58,7 @@ import org.jboss.as.web.common.WarMetaData;
 import org.jboss.metadata.merge.web.jboss.JBossWebMetaDataMerger;
 import org.jboss.metadata.parser.servlet.WebMetaDataParser;
 import org.jboss.metadata.parser.util.MetaDataElementParser;
+import org.jboss.metadata.property.PropertyReplacer;
 import org.jboss.metadata.web.jboss.JBossWebMetaData;
 import org.jboss.metadata.web.spec.WebMetaData;
 import org.jboss.osgi.resolver.XBundle;
@@ -50,11 +70,31 @@ import org.osgi.framework.wiring.BundleWiring;
 /**
  * Process fragment attachments to a WAB.
  *
+ * The web.xml of every attached fragment is merged, in the order of the fragment bundle ids. Fragments
+ * take precedence over fragments with a higher bundle id. The descriptors are parsed in parallel.
+ *
+ * The parsed {@link WebMetaData} is cached by fragment revision and descriptor checksum, unless the descriptor contains
+ * {@code ${} expressions, which depend on the property replacement of the deployment. Cached instances are only read:
+ * they are merged into a fresh {@link JBossWebMetaData} and the deployment gets its own copy as its {@link WebMetaData}.
+ *
  * @author Thomas.Diesler@jboss.com
  * @since 10-Dec-2012
  */
 public class WebBundleFragmentProcessor implements DeploymentUnitProcessor {
 
+    static final int MAX_CACHE_ENTRIES = 64;
+
+    private static ExecutorService parserExecutor;
+
+    private final Map<String, WebMetaData> metaDataCache = new LinkedHashMap<String, WebMetaData>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, WebMetaData> eldest) {
+            return size() > MAX_CACHE_ENTRIES;
+        }
+    };
+
     @Override
     public void deploy(final DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
         DeploymentUnit depUnit = phaseContext.getDeploymentUnit();
@@ -63,45 +103,193 @@ public class WebBundleFragmentProcessor implements DeploymentUnitProcessor {
         if (warMetaData == null || hostRev == null)
             return;
 
-        XBundle fragment = null;
-
         // Get attached fragments
+        List<XBundle> fragments = new ArrayList<XBundle>();
         BundleWiring wiring = hostRev.getWiring();
         for (BundleWire wire : wiring.getProvidedWires(HostNamespace.HOST_NAMESPACE)) {
-            fragment = (XBundle) wire.getRequirer().getBundle();
-            break;
+            XBundle fragment = (XBundle) wire.getRequirer().getBundle();
+            if (fragment.getEntry("WEB-INF/web.xml") != null) {
+                fragments.add(fragment);
+            }
         }
 
-        // No attached fragments
-        if (fragment == null)
+        // No attached fragments with a web.xml entry
+        if (fragments.isEmpty())
             return;
 
-        // Check if the fragment has a web.xml entry
-        URL entry = fragment.getEntry("WEB-INF/web.xml");
-        if (entry == null)
-            return;
+        Collections.sort(fragments, new Comparator<XBundle>() {
+            @Override
+            public int compare(XBundle b1, XBundle b2) {
+                return Long.compare(b1.getBundleId(), b2.getBundleId());
+            }
+        });
+
+        // Parse the web.xml of every fragment, the results may be shared and must not be modified
+        final PropertyReplacer propertyReplacer = SpecDescriptorPropertyReplacement.propertyReplacer(depUnit);
+        List<WebMetaData> fragmentMetaData = new ArrayList<WebMetaData>();
+        List<XBundle> parsedFragments = new ArrayList<XBundle>();
+        if (fragments.size() == 1) {
+            addMetaData(fragmentMetaData, parsedFragments, fragments.get(0), getMetaData(fragments.get(0), propertyReplacer));
+        } else {
+            List<Future<WebMetaData>> futures = new ArrayList<Future<WebMetaData>>();
+            for (final XBundle fragment : fragments) {
+                futures.add(getParserExecutor().submit(new Callable<WebMetaData>() {
+                    @Override
+                    public WebMetaData call() throws Exception {
+                        return getMetaData(fragment, propertyReplacer);
+                    }
+                }));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    addMetaData(fragmentMetaData, parsedFragments, fragments.get(i), futures.get(i).get());
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new DeploymentUnitProcessingException(ex);
+                } catch (ExecutionException ex) {
+                    throw new DeploymentUnitProcessingException(ex.getCause());
+                }
+            }
+        }
 
-        // Parse the web.xml
-        WebMetaData fragmentMetaData = null;
+        // Merge additional {@link WebMetaData}
+        if (!fragmentMetaData.isEmpty()) {
+            warMetaData.setWebMetaData(copyMetaData(fragmentMetaData.get(0), parsedFragments.get(0), propertyReplacer));
+            JBossWebMetaData metaData = warMetaData.getMergedJBossWebMetaData();
+            for (WebMetaData webMetaData : fragmentMetaData) {
+                JBossWebMetaData mergedMetaData = new JBossWebMetaData();
+                JBossWebMetaDataMerger.merge(mergedMetaData, metaData, webMetaData);
+                metaData = mergedMetaData;
+            }
+            warMetaData.setMergedJBossWebMetaData(metaData);
+        }
+    }
+
+    private static void addMetaData(List<WebMetaData> fragmentMetaData, List<XBundle> parsedFragments, XBundle fragment, WebMetaData webMetaData) {
+        if (webMetaData != null) {
+            fragmentMetaData.add(webMetaData);
+            parsedFragments.add(fragment);
+        }
+    }
+
+    private WebMetaData getMetaData(XBundle fragment, PropertyReplacer propertyReplacer) {
         try {
-            XMLInputFactory inputFactory = XMLInputFactory.newInstance();
-            MetaDataElementParser.DTDInfo dtdInfo = new MetaDataElementParser.DTDInfo();
-            inputFactory.setXMLResolver(dtdInfo);
-            XMLStreamReader xmlReader = inputFactory.createXMLStreamReader(entry.openStream());
-            fragmentMetaData = WebMetaDataParser.parse(xmlReader, dtdInfo, SpecDescriptorPropertyReplacement.propertyReplacer(depUnit));
+            byte[] bytes = readEntry(fragment.getEntry("WEB-INF/web.xml"));
+            if (!isCacheable(bytes)) {
+                return parseMetaData(bytes, propertyReplacer);
+            }
+
+            CRC32 crc = new CRC32();
+            crc.update(bytes);
+            String key = fragment.getBundleId() + ":" + fragment.getLastModified() + ":" + Long.toHexString(crc.getValue());
+            synchronized (metaDataCache) {
+                WebMetaData cached = metaDataCache.get(key);
+                if (cached != null) {
+                    return cached;
+                }
+            }
+            WebMetaData webMetaData = parseMetaData(bytes, propertyReplacer);
+            synchronized (metaDataCache) {
+                metaDataCache.put(key, webMetaData);
+            }
+            return webMetaData;
         } catch (XMLStreamException ex) {
             OSGiLogger.LOGGER.debugf(ex, "Cannot parse web.xml in fragment: %s", fragment);
         } catch (IOException ex) {
             OSGiLogger.LOGGER.debugf(ex, "Cannot parse web.xml in fragment: %s", fragment);
         }
+        return null;
+    }
 
-        // Merge additional {@link WebMetaData}
-        if (fragmentMetaData != null) {
-            warMetaData.setWebMetaData(fragmentMetaData);
-            JBossWebMetaData mergedMetaData = new JBossWebMetaData();
-            JBossWebMetaData metaData = warMetaData.getMergedJBossWebMetaData();
-            JBossWebMetaDataMerger.merge(mergedMetaData, metaData, fragmentMetaData);
-            warMetaData.setMergedJBossWebMetaData(mergedMetaData);
+    private static WebMetaData parseMetaData(byte[] bytes, PropertyReplacer propertyReplacer) throws XMLStreamException {
+        XMLInputFactory inputFactory = XMLInputFactory.newInstance();
+        MetaDataElementParser.DTDInfo dtdInfo = new MetaDataElementParser.DTDInfo();
+        inputFactory.setXMLResolver(dtdInfo);
+        XMLStreamReader xmlReader = inputFactory.createXMLStreamReader(new ByteArrayInputStream(bytes));
+        return WebMetaDataParser.parse(xmlReader, dtdInfo, propertyReplacer);
+    }
+
+    // Descriptors with expressions, or in an encoding that hides them from this check, are parsed per deployment
+    private static boolean isCacheable(byte[] bytes) {
+        if (bytes.length >= 2 && ((bytes[0] == (byte) 0xFE && bytes[1] == (byte) 0xFF) || (bytes[0] == (byte) 0xFF && bytes[1] == (byte) 0xFE)))
+            return false;
+        for (int i = 0; i < bytes.length - 1; i++) {
+            if (bytes[i] == '$' && bytes[i + 1] == '{')
+                return false;
+        }
+        return true;
+    }
+
+    // Get a private copy of the given metadata, so that the deployment can modify it
+    private WebMetaData copyMetaData(WebMetaData webMetaData, XBundle fragment, PropertyReplacer propertyReplacer) throws DeploymentUnitProcessingException {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            ObjectOutputStream output = new ObjectOutputStream(bytes);
+            output.writeObject(webMetaData);
+            output.close();
+            ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())) {
+                @Override
+                protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+                    try {
+                        return Class.forName(desc.getName(), false, WebMetaData.class.getClassLoader());
+                    } catch (ClassNotFoundException ex) {
+                        return super.resolveClass(desc);
+                    }
+                }
+            };
+            try {
+                return (WebMetaData) input.readObject();
+            } finally {
+                input.close();
+            }
+        } catch (Exception ex) {
+            OSGiLogger.LOGGER.debugf(ex, "Cannot copy web.xml metadata of fragment: %s", fragment);
+        }
+        // Fall back to a fresh parse
+        try {
+            return parseMetaData(readEntry(fragment.getEntry("WEB-INF/web.xml")), propertyReplacer);
+        } catch (Exception ex) {
+            throw new DeploymentUnitProcessingException(ex);
+        }
+    }
+
+    private static byte[] readEntry(URL entry) throws IOException {
+        InputStream input = entry.openStream();
+        try {
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            byte[] bytes = new byte[4096];
+            int r = input.read(bytes);
+            while (r > 0) {
+                output.write(bytes, 0, r);
+                r = input.read(bytes);
+            }
+            return output.toByteArray();
+        } finally {
+            input.close();
+        }
+    }
+
+    private static synchronized ExecutorService getParserExecutor() {
+        if (parserExecutor == null) {
+            parserExecutor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable run) {
+                    Thread thread = new Thread(run, "OSGi Web Fragment Parser");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        return parserExecutor;
+    }
+
+    /**
+     * Shut down the parser threads. A later deployment starts them again.
+     */
+    static synchronized void shutdownParserExecutor() {
+        if (parserExecutor != null) {
+            parserExecutor.shutdown();
+            parserExecutor = null;
         }
     }
 
@@ -21,8 +21,6 @@
  */
 package org.jboss.as.osgi.web;
 
-import java.util.jar.Manifest;
-
 import org.jboss.as.osgi.OSGiConstants;
 import org.jboss.as.osgi.service.BundleLifecycleIntegration;
 import org.jboss.as.server.deployment.Attachments;
@@ -32,7 +30,6 @@ import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
 import org.jboss.as.server.deployment.DeploymentUnitProcessor;
 import org.jboss.osgi.deployment.deployer.Deployment;
 import org.jboss.osgi.metadata.OSGiMetaData;
-import org.jboss.osgi.metadata.OSGiMetaDataBuilder;
 
 /**
  * Provide OSGi metadata for webbundle:// deployments
@@ -57,12 +54,10 @@ public class WebBundleStructureProcessor implements DeploymentUnitProcessor {
             return;
 
         // Generate the OSGi metadata from a webbundle:// URI
-        // [TODO] this should generate OSGiMetaData directly
-        Manifest manifest = WebBundleURIParser.parse(depUnit.getName());
-        if (manifest != null) {
-            metadata = OSGiMetaDataBuilder.load(manifest);
+        metadata = WebBundleURIParser.parseMetaData(depUnit.getName());
+        if (metadata != null) {
             depUnit.putAttachment(OSGiConstants.OSGI_METADATA_KEY, metadata);
-            depUnit.putAttachment(Attachments.OSGI_MANIFEST, manifest);
+            depUnit.putAttachment(Attachments.OSGI_MANIFEST, WebBundleURIParser.parse(depUnit.getName()));
         }
     }
 
@@ -23,24 +23,45 @@ package org.jboss.as.osgi.web;
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.jar.Attributes;
 import java.util.jar.Manifest;
 
 import javax.servlet.Servlet;
 import javax.servlet.annotation.WebServlet;
 import javax.servlet.http.HttpServlet;
 
-import org.jboss.osgi.metadata.OSGiManifestBuilder;
+import org.jboss.osgi.metadata.OSGiMetaData;
+import org.jboss.osgi.metadata.OSGiMetaDataBuilder;
 import org.osgi.framework.Bundle;
 import org.osgi.framework.Constants;
 
 /**
  * Parser for 'webbundle://' locations.
  *
+ * The generated headers are kept per location, so that repeated installs of the same location
+ * do not parse the URI again.
+ *
  * @author thomas.diesler@jboss.com
  * @since 30-Nov-2012
  */
 public final class WebBundleURIParser {
 
+    static final int MAX_CACHE_ENTRIES = 256;
+
+    private static final String IMPORT_PACKAGES = getPackageNames(WebServlet.class, Servlet.class, HttpServlet.class, Bundle.class);
+
+    private static final Map<String, WebBundleHeaders> headersCache = new LinkedHashMap<String, WebBundleHeaders>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, WebBundleHeaders> eldest) {
+            return size() > MAX_CACHE_ENTRIES;
+        }
+    };
+
     // Hide ctor
     private WebBundleURIParser() {
     }
@@ -53,10 +74,42 @@ public final class WebBundleURIParser {
      * @return A valid OSGi Manifest or null
      */
     public static Manifest parse(String location) {
+        WebBundleHeaders headers = getHeaders(location);
+        return headers != null ? headers.createManifest() : null;
+    }
 
+    /**
+     * Parse a bundle location as a webbundle URI and generate the
+     * OSGi metadata from it
+     *
+     * @param location The bundle location
+     * @return The OSGi metadata or null
+     */
+    public static OSGiMetaData parseMetaData(String location) {
+        WebBundleHeaders headers = getHeaders(location);
+        return headers != null ? headers.metadata : null;
+    }
+
+    private static WebBundleHeaders getHeaders(String location) {
         if (!location.startsWith(WebExtension.WEBBUNDLE_PREFIX))
             return null;
 
+        synchronized (headersCache) {
+            WebBundleHeaders headers = headersCache.get(location);
+            if (headers != null)
+                return headers;
+        }
+        WebBundleHeaders headers = createHeaders(location);
+        if (headers != null) {
+            synchronized (headersCache) {
+                headersCache.put(location, headers);
+            }
+        }
+        return headers;
+    }
+
+    private static WebBundleHeaders createHeaders(String location) {
+
         URI uri;
         try {
             uri = new URI(location);
@@ -100,15 +153,46 @@ public final class WebBundleURIParser {
             }
         }
 
-        OSGiManifestBuilder builder = OSGiManifestBuilder.newInstance();
-        builder.addBundleManifestVersion(2);
-        builder.addBundleSymbolicName(symbolicName);
-        builder.addManifestHeader(WebExtension.WEB_CONTEXTPATH, contextPath);
-        builder.addImportPackages(WebServlet.class, Servlet.class, HttpServlet.class);
-        builder.addImportPackages(Bundle.class);
-        builder.addBundleClasspath("WEB-INF/classes");
-        Manifest manifest = builder.getManifest();
+        Map<String, String> headers = new LinkedHashMap<String, String>();
+        headers.put(Constants.BUNDLE_MANIFESTVERSION, "2");
+        headers.put(Constants.BUNDLE_SYMBOLICNAME, String.valueOf(symbolicName));
+        headers.put(WebExtension.WEB_CONTEXTPATH, contextPath);
+        headers.put(Constants.IMPORT_PACKAGE, IMPORT_PACKAGES);
+        headers.put(Constants.BUNDLE_CLASSPATH, "WEB-INF/classes");
+        return new WebBundleHeaders(headers);
+    }
+
+    private static String getPackageNames(Class<?>... classes) {
+        StringBuilder builder = new StringBuilder();
+        for (Class<?> clazz : classes) {
+            if (builder.length() > 0) {
+                builder.append(",");
+            }
+            builder.append(clazz.getPackage().getName());
+        }
+        return builder.toString();
+    }
+
+    private static final class WebBundleHeaders {
+        private final Map<String, String> headers;
+        private final OSGiMetaData metadata;
 
-        return manifest;
+        WebBundleHeaders(Map<String, String> headers) {
+            this.headers = headers;
+            Properties props = new Properties();
+            props.putAll(headers);
+            this.metadata = OSGiMetaDataBuilder.load(props);
+        }
+
+        // Every caller gets its own Manifest, because a Manifest is mutable
+        Manifest createManifest() {
+            Manifest manifest = new Manifest();
+            Attributes attributes = manifest.getMainAttributes();
+            attributes.put(Attributes.Name.MANIFEST_VERSION, "1.0");
+            for (Map.Entry<String, String> entry : headers.entrySet()) {
+                attributes.putValue(entry.getKey(), entry.getValue());
+            }
+            return manifest;
+        }
     }
 }
@@ -23,6 +23,13 @@ package org.jboss.as.osgi.web;
 
 import java.util.Dictionary;
 import java.util.Hashtable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.servlet.ServletContext;
 
 import org.jboss.as.controller.ServiceVerificationHandler;
@@ -48,12 +55,17 @@ import org.jboss.osgi.resolver.XBundle;
 import org.jboss.osgi.resolver.XBundleRevision;
 import org.osgi.framework.Bundle;
 import org.osgi.framework.BundleContext;
+import org.osgi.framework.BundleException;
 import org.osgi.framework.Constants;
 import org.osgi.framework.ServiceRegistration;
 
 /**
  * {@link LifecycleInterceptor} for webapp bundles.
  *
+ * In asynchronous mode the web context of an activated bundle is started by a bounded executor, so that
+ * many webapp bundles can start their contexts in parallel. The ServletContext service is registered once the
+ * context is started. If the context fails to start the bundle is stopped again.
+ *
  * @author Thomas.Diesler@jboss.com
  * @since 26-Jun-2012
  */
@@ -61,8 +73,15 @@ class WebContextLifecycleInterceptor extends AbstractLifecycleInterceptor implem
 
     static final ServiceName SERVICE_NAME = ServiceName.JBOSS.append("as", "osgi", "web").append(WebContextLifecycleInterceptor.class.getSimpleName());
 
+    /** The framework property that enables the asynchronous start of web contexts */
+    static final String PROPERTY_ASYNC_ACTIVATION = "org.jboss.osgi.web.async.activation";
+    /** The framework property that defines the number of threads that start web contexts */
+    static final String PROPERTY_ASYNC_ACTIVATION_THREADS = "org.jboss.osgi.web.async.activation.threads";
+
     private final InjectedValue<BundleContext> injectedSystemContext = new InjectedValue<BundleContext>();
+    private final ConcurrentMap<Long, PendingActivation> pendingActivations = new ConcurrentHashMap<Long, PendingActivation>();
     private ServiceRegistration<LifecycleInterceptor> registration;
+    private volatile ExecutorService activationExecutor;
 
     static ServiceController<LifecycleInterceptor> addService(ServiceTarget serviceTarget, ServiceVerificationHandler verificationHandler) {
         WebContextLifecycleInterceptor service = new WebContextLifecycleInterceptor();
@@ -76,13 +95,47 @@ class WebContextLifecycleInterceptor extends AbstractLifecycleInterceptor implem
     @Override
     public void start(StartContext context) throws StartException {
         BundleContext syscontext = injectedSystemContext.getValue();
+        if (Boolean.parseBoolean(syscontext.getProperty(PROPERTY_ASYNC_ACTIVATION))) {
+            int poolSize = getActivationThreads(syscontext);
+            activationExecutor = Executors.newFixedThreadPool(poolSize, new ThreadFactory() {
+                private final AtomicInteger count = new AtomicInteger();
+
+                @Override
+                public Thread newThread(Runnable run) {
+                    Thread thread = new Thread(run, "OSGi Web Activation " + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
         registration = syscontext.registerService(LifecycleInterceptor.class, this, null);
     }
 
+    private int getActivationThreads(BundleContext syscontext) {
+        int poolSize = Runtime.getRuntime().availableProcessors();
+        String threads = syscontext.getProperty(PROPERTY_ASYNC_ACTIVATION_THREADS);
+        if (threads != null) {
+            try {
+                int value = Integer.parseInt(threads.trim());
+                if (value > 0) {
+                    return value;
+                }
+            } catch (NumberFormatException ex) {
+                // fall through
+            }
+            OSGiLogger.LOGGER.warnInvalidPropertyValue(threads, PROPERTY_ASYNC_ACTIVATION_THREADS, poolSize);
+        }
+        return poolSize;
+    }
+
     @Override
     public void stop(StopContext context) {
         if (registration != null)
             registration.unregister();
+        if (activationExecutor != null) {
+            activationExecutor.shutdownNow();
+            activationExecutor = null;
+        }
     }
 
     @Override
@@ -93,12 +146,18 @@ class WebContextLifecycleInterceptor extends AbstractLifecycleInterceptor implem
         if (activator != null) {
             switch (state) {
                 case Bundle.ACTIVE:
+                    ExecutorService executor = activationExecutor;
+                    if (executor != null) {
+                        startContextAsync(executor, bundle, activator);
+                        break;
+                    }
                     if (!activator.startContext()) {
                         throw new LifecycleInterceptorException(OSGiMessages.MESSAGES.startContextFailed());
                     }
                     injectBundleContext(activator.getServletContext(), bundle.getBundleContext());
                     break;
                 case Bundle.RESOLVED:
+                    awaitPendingActivation(bundle);
                     uninjectBundleContext(activator.getServletContext());
                     activator.stopContext();
                     break;
@@ -106,6 +165,58 @@ class WebContextLifecycleInterceptor extends AbstractLifecycleInterceptor implem
         }
     }
 
+    private void startContextAsync(ExecutorService executor, final XBundle bundle, final ContextActivator activator) {
+        final Long bundleId = bundle.getBundleId();
+        final BundleContext bundleContext = bundle.getBundleContext();
+        final PendingActivation activation = new PendingActivation();
+        pendingActivations.put(bundleId, activation);
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                boolean started = false;
+                RuntimeException failure = null;
+                try {
+                    started = activator.startContext();
+                    if (started) {
+                        injectBundleContext(activator.getServletContext(), bundleContext);
+                    }
+                } catch (RuntimeException ex) {
+                    failure = ex;
+                } finally {
+                    pendingActivations.remove(bundleId, activation);
+                    activation.complete();
+                }
+                // The rollback runs after the activation is complete, so that a concurrent stop
+                // that awaits the activation while holding the bundle lock can proceed
+                if (!started && !activation.isStopping()) {
+                    rollback(bundle, failure);
+                }
+            }
+        });
+    }
+
+    // Stop the bundle, which takes it back to RESOLVED and stops the web context again
+    private void rollback(XBundle bundle, Throwable cause) {
+        OSGiLogger.LOGGER.errorf(cause, "%s: %s", OSGiMessages.MESSAGES.startContextFailed(), bundle);
+        try {
+            bundle.stop(Bundle.STOP_TRANSIENT);
+        } catch (BundleException ex) {
+            OSGiLogger.LOGGER.errorf(ex, "Cannot stop bundle: %s", bundle);
+        }
+    }
+
+    private void awaitPendingActivation(XBundle bundle) {
+        PendingActivation activation = pendingActivations.get(bundle.getBundleId());
+        if (activation != null) {
+            activation.setStopping();
+            try {
+                activation.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
     private void injectBundleContext(ServletContext webContext, BundleContext bundleContext) {
         OSGiLogger.LOGGER.debugf("Injecting bundle context %s into %s", bundleContext, webContext);
         webContext.setAttribute(WebExtension.OSGI_BUNDLECONTEXT, bundleContext);
@@ -137,6 +248,30 @@ class WebContextLifecycleInterceptor extends AbstractLifecycleInterceptor implem
         bundleContext.registerService(ServletContext.class.getName(), servletContext, props);
     }
 
+    /**
+     * The state of a web context activation. A bundle that is already stopping is not rolled back.
+     */
+    private static final class PendingActivation {
+        private final CountDownLatch latch = new CountDownLatch(1);
+        private volatile boolean stopping;
+
+        void complete() {
+            latch.countDown();
+        }
+
+        void await() throws InterruptedException {
+            latch.await();
+        }
+
+        boolean isStopping() {
+            return stopping;
+        }
+
+        void setStopping() {
+            stopping = true;
+        }
+    }
+
     @Override
     public LifecycleInterceptor getValue() throws IllegalStateException, IllegalArgumentException {
         return this;
@@ -113,6 +113,7 @@ public class WebExtension extends AbstractSubsystemExtension {
 
     @Override
     public void stopSystemServices(StopContext stopContext, BundleContext systemContext) {
+        WebBundleFragmentProcessor.shutdownParserExecutor();
         if (urlHandlerRegistration != null) {
             urlHandlerRegistration.unregister();
             urlHandlerRegistration = null;
@@ -22,6 +22,7 @@
 
 package org.jboss.as.osgi;
 
+import org.jboss.as.osgi.deployment.OSGiAnnotationSummary;
 import org.jboss.as.server.deployment.AttachmentKey;
 import org.jboss.msc.service.ServiceName;
 import org.jboss.osgi.deployment.deployer.Deployment;
@@ -43,6 +44,9 @@ public interface OSGiConstants {
     /** Service base name for all OSGi subsystem services. */
     ServiceName SERVICE_BASE_NAME = ServiceName.JBOSS.append("osgi", "as");
 
+    /** Attachment key for the {@link OSGiAnnotationSummary} of a deployment. */
+    AttachmentKey<OSGiAnnotationSummary> ANNOTATION_SUMMARY_KEY = AttachmentKey.create(OSGiAnnotationSummary.class);
+
     /** Attachment key for the {@link BundleInfo} when an OSGi bundle deployment is detected. */
     AttachmentKey<BundleInfo> BUNDLE_INFO_KEY = AttachmentKey.create(BundleInfo.class);
 
@@ -125,4 +125,8 @@ public interface OSGiLogger extends BasicLogger {
     @LogMessage(level = WARN)
     @Message(id = 11917, value = "Deactivate deferred module phase for: %s")
     void warnDeactivateDeferredModulePhase(Bundle bundle);
+
+    @LogMessage(level = WARN)
+    @Message(id = 11918, value = "Invalid value %s for property %s, using the default %s")
+    void warnInvalidPropertyValue(String value, String name, Object defaultValue);
 }
@@ -124,4 +124,19 @@ public interface OSGiMessages {
 
     @Message(id = 11974, value = "Starting web context failed")
     String startContextFailed();
+
+    @Message(id = 11975, value = "Invalid OSGi service URL: %s")
+    String invalidServiceURL(String name);
+
+    @Message(id = 11976, value = "Cannot find OSGi service: %s")
+    String cannotFindService(String name);
+
+    @Message(id = 11977, value = "Cannot find persistence provider: %s")
+    String cannotFindPersistenceProvider(String className);
+
+    @Message(id = 11978, value = "Bundle already uninstalled: %s")
+    IllegalStateException illegalStateBundleAlreadyUninstalled(Bundle bundle);
+
+    @Message(id = 11979, value = "Cannot start fragment: %s")
+    String cannotStartFragment(Bundle bundle);
 }
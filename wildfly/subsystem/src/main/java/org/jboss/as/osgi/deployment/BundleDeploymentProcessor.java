@@ -24,10 +24,6 @@ package org.jboss.as.osgi.deployment;
 
 import static org.jboss.osgi.framework.spi.IntegrationConstants.BUNDLE_INFO_KEY;
 
-import java.util.List;
-
-import javax.annotation.ManagedBean;
-
 import org.jboss.as.ee.structure.DeploymentType;
 import org.jboss.as.ee.structure.DeploymentTypeMarker;
 import org.jboss.as.osgi.OSGiConstants;
@@ -39,12 +35,7 @@ import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
 import org.jboss.as.server.deployment.DeploymentUnitProcessor;
 import org.jboss.as.server.deployment.EjbDeploymentMarker;
 import org.jboss.as.server.deployment.JPADeploymentMarker;
-import org.jboss.as.server.deployment.annotation.CompositeIndex;
 import org.jboss.as.server.deployment.module.ModuleSpecification;
-import org.jboss.jandex.AnnotationInstance;
-import org.jboss.jandex.AnnotationValue;
-import org.jboss.jandex.DotName;
-import org.jboss.jandex.MethodInfo;
 import org.jboss.modules.ModuleIdentifier;
 import org.jboss.osgi.deployment.deployer.Deployment;
 import org.jboss.osgi.deployment.deployer.DeploymentFactory;
@@ -87,30 +78,19 @@ public class BundleDeploymentProcessor implements DeploymentUnitProcessor {
             deployment.setAutoStart(!metadata.isFragment());
 
             // Set the start level and prevent autostart if greater than the Framwork startlevel
-            AnnotationInstance slAware = getAnnotation(depUnit, "org.jboss.arquillian.osgi.StartLevelAware");
-            if (slAware != null) {
-                MethodInfo slTarget = (MethodInfo) slAware.target();
-                for (AnnotationInstance anDeployment : getAnnotations(depUnit, "org.jboss.arquillian.container.test.api.Deployment")) {
-                    AnnotationValue namevalue = anDeployment.value("name");
-                    Object deploymentName = namevalue != null ? namevalue.value() : null;
-                    if (slTarget == anDeployment.target() && depUnit.getName().equals(deploymentName)) {
-                        int startLevel = slAware.value("startLevel").asInt();
-                        deployment.setStartLevel(startLevel);
-                        deployment.setAutoStart(false);
-                    }
-                }
+            OSGiAnnotationSummary summary = depUnit.getAttachment(OSGiConstants.ANNOTATION_SUMMARY_KEY);
+            if (summary != null && summary.getStartLevel() != null) {
+                deployment.setStartLevel(summary.getStartLevel());
+                deployment.setAutoStart(false);
             }
 
             // Prevent autostart for marked deployments
-            AnnotationInstance marker = getAnnotation(depUnit, "org.jboss.as.arquillian.api.DeploymentMarker");
-            if (marker != null) {
-                AnnotationValue value = marker.value("autoStart");
-                if (value != null && deployment.isAutoStart()) {
-                    deployment.setAutoStart(value.asBoolean());
+            if (summary != null) {
+                if (summary.getMarkerAutoStart() != null && deployment.isAutoStart()) {
+                    deployment.setAutoStart(summary.getMarkerAutoStart());
                 }
-                value = marker.value("startLevel");
-                if (value != null && deployment.getStartLevel() == null) {
-                    deployment.setStartLevel(value.asInt());
+                if (summary.getMarkerStartLevel() != null && deployment.getStartLevel() == null) {
+                    deployment.setStartLevel(summary.getMarkerStartLevel());
                 }
             }
         }
@@ -145,21 +125,11 @@ public class BundleDeploymentProcessor implements DeploymentUnitProcessor {
         }
     }
 
-    private List<AnnotationInstance> getAnnotations(DeploymentUnit depUnit, String className) {
-        CompositeIndex index = depUnit.getAttachment(Attachments.COMPOSITE_ANNOTATION_INDEX);
-        List<AnnotationInstance> annotations = index.getAnnotations(DotName.createSimple(className));
-        return annotations;
-    }
-
-    private AnnotationInstance getAnnotation(DeploymentUnit depUnit, String className) {
-        List<AnnotationInstance> annotations = getAnnotations(depUnit, className);
-        return annotations.size() == 1 ? annotations.get(0) : null;
-    }
-
     private boolean allowAdditionalModuleDependencies(final DeploymentUnit depUnit) {
         boolean isWar = DeploymentTypeMarker.isType(DeploymentType.WAR, depUnit);
         boolean isEjb = EjbDeploymentMarker.isEjbDeployment(depUnit);
-        boolean isCDI = getAnnotation(depUnit, ManagedBean.class.getName()) != null;
+        OSGiAnnotationSummary summary = depUnit.getAttachment(OSGiConstants.ANNOTATION_SUMMARY_KEY);
+        boolean isCDI = summary != null && summary.hasManagedBean();
         boolean isJPA = JPADeploymentMarker.isJPADeployment(depUnit);
         return isWar || isEjb || isCDI || isJPA;
     }
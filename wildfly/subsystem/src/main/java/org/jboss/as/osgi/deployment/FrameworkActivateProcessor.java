@@ -22,11 +22,8 @@
 
 package org.jboss.as.osgi.deployment;
 
-import static org.jboss.as.osgi.OSGiLogger.LOGGER;
 import static org.jboss.as.osgi.service.ModuleRegistrationTracker.MODULE_REGISTRATION_COMPLETE;
 
-import java.util.List;
-
 import org.jboss.as.osgi.OSGiConstants;
 import org.jboss.as.osgi.service.FrameworkActivator;
 import org.jboss.as.osgi.service.InitialDeploymentTracker;
@@ -36,11 +33,6 @@ import org.jboss.as.server.deployment.DeploymentPhaseContext;
 import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
 import org.jboss.as.server.deployment.DeploymentUnitProcessor;
-import org.jboss.as.server.deployment.annotation.CompositeIndex;
-import org.jboss.jandex.AnnotationInstance;
-import org.jboss.jandex.AnnotationTarget;
-import org.jboss.jandex.DotName;
-import org.jboss.jandex.FieldInfo;
 import org.jboss.osgi.deployment.deployer.Deployment;
 import org.jboss.osgi.framework.Services;
 
@@ -90,26 +82,7 @@ public class FrameworkActivateProcessor implements DeploymentUnitProcessor {
     }
 
     private boolean hasValidInjectionPoint(DeploymentUnit depUnit) {
-        return hasInjectionPoint(depUnit, "javax.inject.Inject") || hasInjectionPoint(depUnit, "javax.annotation.Resource");
-    }
-
-    // Check for injection target fields of type org.osgi.framework.*
-    private boolean hasInjectionPoint(DeploymentUnit depUnit, String anName) {
-        boolean result = false;
-        CompositeIndex compositeIndex = depUnit.getAttachment(Attachments.COMPOSITE_ANNOTATION_INDEX);
-        List<AnnotationInstance> annotationList = compositeIndex.getAnnotations(DotName.createSimple(anName));
-        for (AnnotationInstance instance : annotationList) {
-            AnnotationTarget target = instance.target();
-            if (target instanceof FieldInfo) {
-                FieldInfo fieldInfo = (FieldInfo) target;
-                String typeName = fieldInfo.type().toString();
-                if (typeName.startsWith("org.osgi.framework") || typeName.startsWith("org.osgi.service")) {
-                    LOGGER.debugf("OSGi injection point of type '%s' detected: %s", typeName, fieldInfo.declaringClass());
-                    result = true;
-                    break;
-                }
-            }
-        }
-        return result;
+        OSGiAnnotationSummary summary = depUnit.getAttachment(OSGiConstants.ANNOTATION_SUMMARY_KEY);
+        return summary != null && summary.hasOSGiInjectionPoint();
     }
 }
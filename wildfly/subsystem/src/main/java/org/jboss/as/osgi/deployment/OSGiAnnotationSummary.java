@@ -0,0 +1,199 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.osgi.deployment;
+
+import static org.jboss.as.osgi.OSGiLogger.LOGGER;
+
+import java.util.List;
+
+import javax.annotation.ManagedBean;
+
+import org.jboss.as.server.deployment.DeploymentUnit;
+import org.jboss.as.server.deployment.annotation.CompositeIndex;
+import org.jboss.jandex.AnnotationInstance;
+import org.jboss.jandex.AnnotationTarget;
+import org.jboss.jandex.AnnotationValue;
+import org.jboss.jandex.DotName;
+import org.jboss.jandex.FieldInfo;
+
+/**
+ * A compact summary of the annotations in a deployment that are relevant to the OSGi subsystem.
+ *
+ * The summary is created once per deployment unit by the {@link OSGiAnnotationSummaryProcessor}.
+ * Later processors read it instead of querying the {@link CompositeIndex} again.
+ *
+ * @since 17-Oct-2026
+ */
+public final class OSGiAnnotationSummary {
+
+    static final DotName INJECT = DotName.createSimple("javax.inject.Inject");
+    static final DotName RESOURCE = DotName.createSimple("javax.annotation.Resource");
+    static final DotName MANAGED_BEAN = DotName.createSimple(ManagedBean.class.getName());
+    static final DotName START_LEVEL_AWARE = DotName.createSimple("org.jboss.arquillian.osgi.StartLevelAware");
+    static final DotName ARQUILLIAN_DEPLOYMENT = DotName.createSimple("org.jboss.arquillian.container.test.api.Deployment");
+    static final DotName DEPLOYMENT_MARKER = DotName.createSimple("org.jboss.as.arquillian.api.DeploymentMarker");
+
+    private static final String BUNDLE_CONTEXT_TYPE = "org.osgi.framework.BundleContext";
+
+    /** The summary of a deployment without any relevant annotations */
+    static final OSGiAnnotationSummary EMPTY = new OSGiAnnotationSummary(false, false, false, null, null, null);
+
+    private final boolean osgiInjectionPoint;
+    private final boolean bundleContextResource;
+    private final boolean managedBean;
+    private final Integer startLevel;
+    private final Boolean markerAutoStart;
+    private final Integer markerStartLevel;
+
+    private OSGiAnnotationSummary(boolean osgiInjectionPoint, boolean bundleContextResource, boolean managedBean, Integer startLevel, Boolean markerAutoStart, Integer markerStartLevel) {
+        this.osgiInjectionPoint = osgiInjectionPoint;
+        this.bundleContextResource = bundleContextResource;
+        this.managedBean = managedBean;
+        this.startLevel = startLevel;
+        this.markerAutoStart = markerAutoStart;
+        this.markerStartLevel = markerStartLevel;
+    }
+
+    /**
+     * Create the summary from the given index. Every relevant annotation is looked up exactly once.
+     */
+    static OSGiAnnotationSummary create(DeploymentUnit depUnit, CompositeIndex index) {
+
+        // Check for injection target fields of type org.osgi.framework.* or org.osgi.service.*
+        boolean osgiInjectionPoint = false;
+        boolean bundleContextResource = false;
+        for (AnnotationInstance instance : index.getAnnotations(INJECT)) {
+            if (isOSGiField(instance.target())) {
+                osgiInjectionPoint = true;
+                break;
+            }
+        }
+        for (AnnotationInstance instance : index.getAnnotations(RESOURCE)) {
+            AnnotationTarget target = instance.target();
+            if (isOSGiField(target)) {
+                osgiInjectionPoint = true;
+                // [TODO] Method injection
+                if (BUNDLE_CONTEXT_TYPE.equals(((FieldInfo) target).type().name().toString())) {
+                    bundleContextResource = true;
+                    break;
+                }
+            }
+        }
+
+        // The start level of an arquillian deployment that is marked as {@code StartLevelAware}
+        Integer startLevel = null;
+        AnnotationInstance slAware = getSingleAnnotation(index, START_LEVEL_AWARE);
+        if (slAware != null) {
+            AnnotationTarget slTarget = slAware.target();
+            for (AnnotationInstance anDeployment : index.getAnnotations(ARQUILLIAN_DEPLOYMENT)) {
+                AnnotationValue namevalue = anDeployment.value("name");
+                Object deploymentName = namevalue != null ? namevalue.value() : null;
+                if (slTarget == anDeployment.target() && depUnit.getName().equals(deploymentName)) {
+                    startLevel = slAware.value("startLevel").asInt();
+                }
+            }
+        }
+
+        Boolean markerAutoStart = null;
+        Integer markerStartLevel = null;
+        AnnotationInstance marker = getSingleAnnotation(index, DEPLOYMENT_MARKER);
+        if (marker != null) {
+            AnnotationValue value = marker.value("autoStart");
+            markerAutoStart = value != null ? value.asBoolean() : null;
+            value = marker.value("startLevel");
+            markerStartLevel = value != null ? value.asInt() : null;
+        }
+
+        boolean managedBean = getSingleAnnotation(index, MANAGED_BEAN) != null;
+
+        if (!osgiInjectionPoint && !managedBean && startLevel == null && marker == null)
+            return EMPTY;
+
+        return new OSGiAnnotationSummary(osgiInjectionPoint, bundleContextResource, managedBean, startLevel, markerAutoStart, markerStartLevel);
+    }
+
+    private static boolean isOSGiField(AnnotationTarget target) {
+        if (target instanceof FieldInfo) {
+            FieldInfo fieldInfo = (FieldInfo) target;
+            String typeName = fieldInfo.type().toString();
+            if (typeName.startsWith("org.osgi.framework") || typeName.startsWith("org.osgi.service")) {
+                LOGGER.debugf("OSGi injection point of type '%s' detected: %s", typeName, fieldInfo.declaringClass());
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static AnnotationInstance getSingleAnnotation(CompositeIndex index, DotName annotationName) {
+        List<AnnotationInstance> annotations = index.getAnnotations(annotationName);
+        return annotations.size() == 1 ? annotations.get(0) : null;
+    }
+
+    /**
+     * True if there is an {@code @Inject} or {@code @Resource} field of an OSGi framework or service type.
+     */
+    public boolean hasOSGiInjectionPoint() {
+        return osgiInjectionPoint;
+    }
+
+    /**
+     * True if there is a {@code @Resource} field of type {@code BundleContext}.
+     */
+    public boolean hasBundleContextResource() {
+        return bundleContextResource;
+    }
+
+    /**
+     * True if the deployment contains a {@link ManagedBean}.
+     */
+    public boolean hasManagedBean() {
+        return managedBean;
+    }
+
+    /**
+     * Get the start level of a {@code StartLevelAware} arquillian deployment or null.
+     */
+    public Integer getStartLevel() {
+        return startLevel;
+    }
+
+    /**
+     * Get the {@code autoStart} value of the {@code DeploymentMarker} or null.
+     */
+    public Boolean getMarkerAutoStart() {
+        return markerAutoStart;
+    }
+
+    /**
+     * Get the {@code startLevel} value of the {@code DeploymentMarker} or null.
+     */
+    public Integer getMarkerStartLevel() {
+        return markerStartLevel;
+    }
+
+    @Override
+    public String toString() {
+        return "OSGiAnnotationSummary[injection=" + osgiInjectionPoint + ",bundleContext=" + bundleContextResource + ",managedBean=" + managedBean
+                + ",startLevel=" + startLevel + ",markerAutoStart=" + markerAutoStart + ",markerStartLevel=" + markerStartLevel + "]";
+    }
+}
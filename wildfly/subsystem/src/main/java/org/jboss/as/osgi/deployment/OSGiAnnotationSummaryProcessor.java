@@ -0,0 +1,56 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.osgi.deployment;
+
+import org.jboss.as.osgi.OSGiConstants;
+import org.jboss.as.server.deployment.Attachments;
+import org.jboss.as.server.deployment.DeploymentPhaseContext;
+import org.jboss.as.server.deployment.DeploymentUnit;
+import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
+import org.jboss.as.server.deployment.DeploymentUnitProcessor;
+import org.jboss.as.server.deployment.annotation.CompositeIndex;
+
+/**
+ * Attaches the {@link OSGiAnnotationSummary} of a deployment.
+ *
+ * This processor runs before all other OSGi parse processors and is the only one that queries the composite annotation index.
+ *
+ * @since 17-Oct-2026
+ */
+public class OSGiAnnotationSummaryProcessor implements DeploymentUnitProcessor {
+
+    @Override
+    public void deploy(DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
+        DeploymentUnit depUnit = phaseContext.getDeploymentUnit();
+        CompositeIndex compositeIndex = depUnit.getAttachment(Attachments.COMPOSITE_ANNOTATION_INDEX);
+        if (compositeIndex != null) {
+            OSGiAnnotationSummary summary = OSGiAnnotationSummary.create(depUnit, compositeIndex);
+            depUnit.putAttachment(OSGiConstants.ANNOTATION_SUMMARY_KEY, summary);
+        }
+    }
+
+    @Override
+    public void undeploy(final DeploymentUnit depUnit) {
+        depUnit.removeAttachment(OSGiConstants.ANNOTATION_SUMMARY_KEY);
+    }
+}
@@ -0,0 +1,463 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.osgi.management;
+
+import static org.jboss.as.osgi.OSGiLogger.LOGGER;
+import static org.jboss.as.osgi.OSGiMessages.MESSAGES;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
+import org.jboss.as.osgi.parser.ModelConstants;
+import org.jboss.as.osgi.service.BundleLifecycleIntegration.BundleLifecycleImpl;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceController;
+import org.jboss.osgi.framework.Services;
+import org.jboss.osgi.framework.spi.BundleManager;
+import org.jboss.osgi.framework.spi.IntegrationServices;
+import org.jboss.osgi.resolver.XBundle;
+import org.osgi.framework.AdminPermission;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.BundleException;
+import org.osgi.framework.wiring.BundleRevision;
+import org.osgi.framework.wiring.BundleWire;
+import org.osgi.framework.wiring.BundleWiring;
+import org.osgi.framework.wiring.FrameworkWiring;
+
+/**
+ * Handles the batch bundle operations on the subsystem root.
+ *
+ * The bundles are given as a list of bundle ids or locations. Bundles are started in dependency order and stopped
+ * in reverse dependency order. Bundles that do not depend on each other are processed concurrently, up to the
+ * given parallelism. The starts of a dependency level are all initiated before any of them is awaited, so that
+ * deferred deployment phases come up together. The result contains the outcome and the processing time for every bundle.
+ *
+ * @since 17-Oct-2026
+ */
+public abstract class BundleBatchHandler extends AbstractRuntimeOnlyHandler {
+
+    public static final BundleBatchHandler INSTALL_HANDLER = new BundleBatchHandler() {
+        @Override
+        List<List<BatchEntry>> getProcessingOrder(BatchContext batch, List<BatchEntry> entries) {
+            return Collections.singletonList(entries);
+        }
+
+        @Override
+        Future<? extends Bundle> process(BatchContext batch, BatchEntry entry) throws Exception {
+            BundleContext syscontext = batch.getSystemContext();
+            if (syscontext == null)
+                throw MESSAGES.illegalArgumentCannotObtainBundleResource(entry.spec);
+            entry.bundle = syscontext.installBundle(entry.spec);
+            return null;
+        }
+    };
+
+    public static final BundleBatchHandler START_HANDLER = new BundleBatchHandler() {
+        @Override
+        List<List<BatchEntry>> getProcessingOrder(BatchContext batch, List<BatchEntry> entries) {
+            return getDependencyLevels(batch, entries, true);
+        }
+
+        @Override
+        Future<? extends Bundle> process(BatchContext batch, BatchEntry entry) throws Exception {
+            Bundle bundle = entry.bundle;
+            if (bundle.getState() == Bundle.ACTIVE)
+                return null;
+
+            // Apply the checks of Bundle.start(), which is bypassed for an asynchronous start
+            SecurityManager sm = System.getSecurityManager();
+            if (sm != null) {
+                sm.checkPermission(new AdminPermission(bundle, AdminPermission.EXECUTE));
+            }
+            if (bundle.getState() == Bundle.UNINSTALLED)
+                throw MESSAGES.illegalStateBundleAlreadyUninstalled(bundle);
+            BundleRevision brev = bundle.adapt(BundleRevision.class);
+            if (brev != null && (brev.getTypes() & BundleRevision.TYPE_FRAGMENT) != 0)
+                throw new BundleException(MESSAGES.cannotStartFragment(bundle), BundleException.INVALID_OPERATION);
+
+            return batch.startAsync(bundle);
+        }
+    };
+
+    public static final BundleBatchHandler STOP_HANDLER = new BundleBatchHandler() {
+        @Override
+        List<List<BatchEntry>> getProcessingOrder(BatchContext batch, List<BatchEntry> entries) {
+            List<List<BatchEntry>> result = new ArrayList<List<BatchEntry>>(getDependencyLevels(batch, entries, false));
+            Collections.reverse(result);
+            return result;
+        }
+
+        @Override
+        Future<? extends Bundle> process(BatchContext batch, BatchEntry entry) throws Exception {
+            entry.bundle.stop();
+            return null;
+        }
+    };
+
+    private BundleBatchHandler() {
+    }
+
+    @Override
+    protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+        int parallelism = operation.hasDefined(ModelConstants.PARALLELISM) ? operation.get(ModelConstants.PARALLELISM).asInt() : 1;
+
+        List<String> specs = new ArrayList<String>();
+        for (ModelNode node : operation.require(ModelConstants.BUNDLES).asList()) {
+            specs.add(node.asString());
+        }
+
+        // The services are obtained on the management thread, the workers do not touch the OperationContext
+        BatchContext batch = new BatchContext(getSystemContext(context), getBundleManager(context), getBundleLifecycle(context));
+        context.getResult().set(process(batch, operation, specs, parallelism));
+        context.completeStep(OperationContext.RollbackHandler.NOOP_ROLLBACK_HANDLER);
+    }
+
+    abstract List<List<BatchEntry>> getProcessingOrder(BatchContext batch, List<BatchEntry> entries);
+
+    /**
+     * Process the given entry.
+     *
+     * @return a future that completes when the processing is done or null if it is done already
+     */
+    abstract Future<? extends Bundle> process(BatchContext batch, BatchEntry entry) throws Exception;
+
+    ModelNode process(BatchContext batch, ModelNode operation, List<String> specs, int parallelism) {
+        List<BatchEntry> entries = new ArrayList<BatchEntry>();
+        for (String spec : specs) {
+            entries.add(new BatchEntry(spec));
+        }
+
+        String operationName = operation.hasDefined(ModelDescriptionConstants.OP) ? operation.get(ModelDescriptionConstants.OP).asString() : "batch";
+        ExecutorService executor = parallelism > 1 ? Executors.newFixedThreadPool(parallelism, new BatchThreadFactory(operationName)) : null;
+        try {
+            for (List<BatchEntry> level : getProcessingOrder(batch, entries)) {
+                processLevel(batch, operation, level, executor);
+            }
+        } finally {
+            if (executor != null) {
+                executor.shutdown();
+            }
+        }
+
+        // Report the outcomes in the given order
+        ModelNode result = new ModelNode();
+        result.setEmptyList();
+        for (BatchEntry entry : entries) {
+            result.add(entry.getOutcome());
+        }
+        return result;
+    }
+
+    private void processLevel(final BatchContext batch, final ModelNode operation, List<BatchEntry> level, ExecutorService executor) {
+
+        // Initiate the processing of every entry in the level
+        Map<BatchEntry, Future<Future<? extends Bundle>>> initiated = new LinkedHashMap<BatchEntry, Future<Future<? extends Bundle>>>();
+        Map<BatchEntry, Future<? extends Bundle>> pending = new LinkedHashMap<BatchEntry, Future<? extends Bundle>>();
+        for (final BatchEntry entry : level) {
+            Callable<Future<? extends Bundle>> task = new Callable<Future<? extends Bundle>>() {
+                @Override
+                public Future<? extends Bundle> call() throws Exception {
+                    OperationAssociation.INSTANCE.setAssociation(operation);
+                    try {
+                        return process(batch, entry);
+                    } finally {
+                        OperationAssociation.INSTANCE.removeAssociation();
+                    }
+                }
+            };
+            entry.startTime = System.currentTimeMillis();
+            if (executor != null) {
+                initiated.put(entry, executor.submit(task));
+            } else {
+                try {
+                    pending.put(entry, task.call());
+                } catch (Exception ex) {
+                    entry.failed(ex);
+                }
+            }
+        }
+        for (Map.Entry<BatchEntry, Future<Future<? extends Bundle>>> aux : initiated.entrySet()) {
+            pending.put(aux.getKey(), getFutureValue(aux.getKey(), aux.getValue()));
+        }
+
+        // Await the entries that complete asynchronously
+        for (Map.Entry<BatchEntry, Future<? extends Bundle>> aux : pending.entrySet()) {
+            BatchEntry entry = aux.getKey();
+            if (entry.failure == null) {
+                if (aux.getValue() != null) {
+                    getFutureValue(entry, aux.getValue());
+                }
+                entry.completed();
+            }
+        }
+    }
+
+    private static <T> T getFutureValue(BatchEntry entry, Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            entry.failed(ex);
+        } catch (ExecutionException ex) {
+            entry.failed(ex.getCause());
+        }
+        return null;
+    }
+
+    /**
+     * Group the given entries by the depth of their bundles in the wiring graph, so that every bundle comes after the bundles it is wired to.
+     * Entries for unknown bundles are omitted, they are reported as failures. Entries that name the same bundle are processed once.
+     */
+    static List<List<BatchEntry>> getDependencyLevels(BatchContext batch, List<BatchEntry> entries, boolean resolve) {
+        Map<Bundle, BatchEntry> primaries = new LinkedHashMap<Bundle, BatchEntry>();
+        for (BatchEntry entry : entries) {
+            Bundle bundle = batch.findBundle(entry.spec);
+            if (bundle != null) {
+                entry.bundle = bundle;
+                BatchEntry primary = primaries.get(bundle);
+                if (primary == null) {
+                    primaries.put(bundle, entry);
+                } else {
+                    entry.primary = primary;
+                }
+            }
+        }
+
+        // Resolve all bundles in one go, so that the wirings are available
+        if (resolve) {
+            batch.resolveBundles(primaries.keySet());
+        }
+
+        List<List<BatchEntry>> result = new ArrayList<List<BatchEntry>>();
+        for (Collection<Bundle> level : getDependencyLevels(primaries.keySet())) {
+            List<BatchEntry> entryLevel = new ArrayList<BatchEntry>();
+            for (Bundle bundle : level) {
+                entryLevel.add(primaries.get(bundle));
+            }
+            result.add(entryLevel);
+        }
+        return result;
+    }
+
+    static List<Collection<Bundle>> getDependencyLevels(Set<Bundle> bundles) {
+        Map<Bundle, Integer> depths = new HashMap<Bundle, Integer>();
+        for (Bundle bundle : bundles) {
+            getDependencyDepth(bundle, bundles, depths, new LinkedHashSet<Bundle>());
+        }
+        List<Collection<Bundle>> result = new ArrayList<Collection<Bundle>>();
+        for (Bundle bundle : bundles) {
+            int depth = depths.get(bundle);
+            while (result.size() <= depth) {
+                result.add(new ArrayList<Bundle>());
+            }
+            result.get(depth).add(bundle);
+        }
+        return result;
+    }
+
+    private static int getDependencyDepth(Bundle bundle, Set<Bundle> bundles, Map<Bundle, Integer> depths, Set<Bundle> path) {
+        Integer depth = depths.get(bundle);
+        if (depth != null)
+            return depth;
+
+        // Bundles in a wiring cycle end up at the same depth
+        if (!path.add(bundle))
+            return 0;
+
+        int result = 0;
+        BundleWiring wiring = bundle.adapt(BundleWiring.class);
+        if (wiring != null) {
+            for (BundleWire wire : wiring.getRequiredWires(null)) {
+                Bundle provider = wire.getProviderWiring().getBundle();
+                if (provider != bundle && bundles.contains(provider)) {
+                    result = Math.max(result, getDependencyDepth(provider, bundles, depths, path) + 1);
+                }
+            }
+        }
+        path.remove(bundle);
+        depths.put(bundle, result);
+        return result;
+    }
+
+    private static BundleLifecycleImpl getBundleLifecycle(OperationContext context) {
+        ServiceController<?> controller = context.getServiceRegistry(false).getService(IntegrationServices.BUNDLE_LIFECYCLE_PLUGIN);
+        Object value = controller != null ? controller.getValue() : null;
+        return value instanceof BundleLifecycleImpl ? (BundleLifecycleImpl) value : null;
+    }
+
+    private static BundleManager getBundleManager(OperationContext context) {
+        ServiceController<?> controller = context.getServiceRegistry(false).getService(Services.BUNDLE_MANAGER);
+        return controller != null ? (BundleManager) controller.getValue() : null;
+    }
+
+    private static BundleContext getSystemContext(OperationContext context) {
+        ServiceController<?> controller = context.getServiceRegistry(false).getService(Services.FRAMEWORK_CREATE);
+        return controller != null ? (BundleContext) controller.getValue() : null;
+    }
+
+    /**
+     * The services that a batch operates on. They are obtained once on the management thread.
+     */
+    static class BatchContext {
+
+        private final BundleContext systemContext;
+        private final BundleManager bundleManager;
+        private final BundleLifecycleImpl lifecycle;
+
+        BatchContext(BundleContext systemContext, BundleManager bundleManager, BundleLifecycleImpl lifecycle) {
+            this.systemContext = systemContext;
+            this.bundleManager = bundleManager;
+            this.lifecycle = lifecycle;
+        }
+
+        BundleContext getSystemContext() {
+            return systemContext;
+        }
+
+        /**
+         * Find the bundle for the given bundle id or location or null.
+         */
+        Bundle findBundle(String spec) {
+            try {
+                Long bundleId = Long.parseLong(spec);
+                return systemContext != null ? systemContext.getBundle(bundleId) : null;
+            } catch (NumberFormatException ex) {
+                return bundleManager != null ? bundleManager.getBundleByLocation(spec) : null;
+            }
+        }
+
+        void resolveBundles(Collection<Bundle> bundles) {
+            if (bundleManager != null) {
+                FrameworkWiring frameworkWiring = bundleManager.getSystemBundle().adapt(FrameworkWiring.class);
+                frameworkWiring.resolveBundles(bundles);
+            }
+        }
+
+        /**
+         * Start the given bundle without waiting for a deferred deployment phase.
+         *
+         * @return a future that completes when the bundle is activated or null if the bundle was started synchronously
+         */
+        Future<? extends Bundle> startAsync(Bundle bundle) throws BundleException {
+            if (lifecycle != null && bundle instanceof XBundle) {
+                return lifecycle.startAsync((XBundle) bundle, 0);
+            }
+            bundle.start();
+            return null;
+        }
+    }
+
+    /**
+     * The state of a single bundle spec in a batch.
+     */
+    static final class BatchEntry {
+
+        private final String spec;
+        private Bundle bundle;
+        private BatchEntry primary;
+        private long startTime;
+        private volatile ModelNode outcome;
+        private volatile Throwable failure;
+
+        BatchEntry(String spec) {
+            this.spec = spec;
+        }
+
+        void completed() {
+            outcome = createOutcome(null);
+        }
+
+        void failed(Throwable cause) {
+            LOGGER.debugf(cause, "Cannot process bundle: %s", spec);
+            failure = cause;
+            outcome = createOutcome(cause);
+        }
+
+        ModelNode getOutcome() {
+            ModelNode result = primary != null ? primary.getOutcome() : outcome;
+            if (result == null) {
+                return getOutcome(spec, null, MESSAGES.illegalArgumentCannotObtainBundleResource(spec), 0);
+            }
+            result = result.clone();
+            result.get(ModelConstants.BUNDLE).set(spec);
+            return result;
+        }
+
+        private ModelNode createOutcome(Throwable cause) {
+            return getOutcome(spec, bundle, cause, System.currentTimeMillis() - startTime);
+        }
+
+        private static ModelNode getOutcome(String spec, Bundle bundle, Throwable failure, long time) {
+            ModelNode outcome = new ModelNode();
+            outcome.get(ModelConstants.BUNDLE).set(spec);
+            if (bundle != null) {
+                outcome.get(ModelConstants.ID).set(bundle.getBundleId());
+                outcome.get(ModelConstants.STATE).set(BundleResourceHandler.getBundleState(bundle));
+            }
+            if (failure == null) {
+                outcome.get(ModelDescriptionConstants.OUTCOME).set(ModelDescriptionConstants.SUCCESS);
+            } else {
+                outcome.get(ModelDescriptionConstants.OUTCOME).set(ModelDescriptionConstants.FAILED);
+                outcome.get(ModelDescriptionConstants.FAILURE_DESCRIPTION).set(String.valueOf(failure.getLocalizedMessage()));
+            }
+            outcome.get(ModelConstants.TIME).set(time);
+            return outcome;
+        }
+    }
+
+    private static class BatchThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+        private final String operationName;
+
+        BatchThreadFactory(String operationName) {
+            this.operationName = operationName;
+        }
+
+        @Override
+        public Thread newThread(Runnable run) {
+            Thread thread = new Thread(run, "OSGi " + operationName + " Thread-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.osgi.management;
+
+import static org.jboss.as.osgi.OSGiLogger.LOGGER;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Dictionary;
+
+import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.osgi.parser.ModelConstants;
+import org.jboss.as.osgi.parser.OSGiRootResource;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceController;
+import org.jboss.osgi.framework.Services;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.Constants;
+import org.osgi.framework.startlevel.BundleStartLevel;
+import org.osgi.framework.wiring.BundleRevision;
+
+/**
+ * Handles the bulk read of the runtime bundle information.
+ *
+ * All attributes of a bundle resource are read for every bundle in a single pass over a snapshot of the installed bundles.
+ * The bundles are ordered by bundle id and can be filtered by state and symbolic name prefix. Paging is supported with an
+ * offset and a maximum number of results.
+ *
+ * @since 17-Oct-2026
+ */
+public class BundleListHandler extends AbstractRuntimeOnlyHandler {
+
+    public static final BundleListHandler INSTANCE = new BundleListHandler();
+
+    private static final Comparator<Bundle> BUNDLE_ID_COMPARATOR = new Comparator<Bundle>() {
+        @Override
+        public int compare(Bundle b1, Bundle b2) {
+            return Long.compare(b1.getBundleId(), b2.getBundleId());
+        }
+    };
+
+    private BundleListHandler() {
+    }
+
+    @Override
+    protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+        ModelNode stateNode = OSGiRootResource.STATE.resolveModelAttribute(context, operation);
+        ModelNode prefixNode = OSGiRootResource.SYMBOLIC_NAME_PREFIX.resolveModelAttribute(context, operation);
+        ModelNode maxResultsNode = OSGiRootResource.MAX_RESULTS.resolveModelAttribute(context, operation);
+        String state = stateNode.isDefined() ? stateNode.asString() : null;
+        String prefix = prefixNode.isDefined() ? prefixNode.asString() : null;
+        int offset = OSGiRootResource.OFFSET.resolveModelAttribute(context, operation).asInt();
+        int maxResults = maxResultsNode.isDefined() ? maxResultsNode.asInt() : Integer.MAX_VALUE;
+
+        ModelNode result = context.getResult();
+        result.setEmptyList();
+
+        BundleContext syscontext = getSystemContext(context);
+        if (syscontext != null) {
+            Bundle[] bundles = syscontext.getBundles();
+            Arrays.sort(bundles, BUNDLE_ID_COMPARATOR);
+            int matches = 0;
+            int added = 0;
+            for (Bundle bundle : bundles) {
+                if (added >= maxResults)
+                    break;
+                if (state != null && !state.equals(BundleResourceHandler.getBundleState(bundle)))
+                    continue;
+                if (prefix != null) {
+                    String symbolicName = bundle.getSymbolicName();
+                    if (symbolicName == null || !symbolicName.startsWith(prefix))
+                        continue;
+                }
+                if (matches++ >= offset) {
+                    result.add(getBundleModel(bundle));
+                    added++;
+                }
+            }
+        } else {
+            LOGGER.debugf("BundleContext not available for management operation");
+        }
+
+        context.completeStep(OperationContext.RollbackHandler.NOOP_ROLLBACK_HANDLER);
+    }
+
+    /**
+     * Get the attributes of the bundle resource for the given bundle.
+     */
+    static ModelNode getBundleModel(Bundle bundle) {
+        ModelNode model = new ModelNode();
+        model.get(ModelConstants.ID).set(bundle.getBundleId());
+        model.get(ModelConstants.STATE).set(BundleResourceHandler.getBundleState(bundle));
+        String symbolicName = bundle.getSymbolicName();
+        if (symbolicName != null) {
+            model.get(ModelConstants.SYMBOLIC_NAME).set(symbolicName);
+        }
+        model.get(ModelConstants.VERSION).set(String.valueOf(bundle.getVersion()));
+        model.get(ModelConstants.LOCATION).set(bundle.getLocation());
+        BundleStartLevel bundleStartLevel = bundle.adapt(BundleStartLevel.class);
+        if (bundleStartLevel != null) {
+            model.get(ModelConstants.STARTLEVEL).set(bundleStartLevel.getStartLevel());
+        }
+        model.get(ModelConstants.TYPE).set(isFragment(bundle) ? ModelConstants.FRAGMENT : ModelConstants.BUNDLE);
+        return model;
+    }
+
+    private static boolean isFragment(Bundle bundle) {
+        // Prefer the revision over the headers, which are localized on every call
+        BundleRevision revision = bundle.adapt(BundleRevision.class);
+        if (revision != null) {
+            return (revision.getTypes() & BundleRevision.TYPE_FRAGMENT) != 0;
+        }
+        Dictionary<String, String> headers = bundle.getHeaders();
+        return headers != null && headers.get(Constants.FRAGMENT_HOST) != null;
+    }
+
+    private BundleContext getSystemContext(OperationContext context) {
+        ServiceController<?> controller = context.getServiceRegistry(false).getService(Services.FRAMEWORK_CREATE);
+        return controller != null ? (BundleContext) controller.getValue() : null;
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.osgi.management;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.osgi.parser.ModelConstants;
+import org.jboss.as.osgi.service.LockManagerIntegration.LockManagerImpl;
+import org.jboss.as.osgi.service.LockManagerStatistics;
+import org.jboss.as.osgi.service.LockManagerStatistics.MethodStatistics;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceController;
+import org.jboss.osgi.framework.spi.IntegrationServices;
+import org.jboss.osgi.framework.spi.LockManager.Method;
+
+/**
+ * Handles the read of the framework lock statistics.
+ *
+ * The reply contains the lock count, contended count and the wait and hold times for every {@link Method}.
+ * Times are given in microseconds.
+ *
+ * @since 17-Oct-2026
+ */
+public class LockStatisticsHandler extends AbstractRuntimeOnlyHandler {
+
+    public static final LockStatisticsHandler INSTANCE = new LockStatisticsHandler();
+
+    private LockStatisticsHandler() {
+    }
+
+    @Override
+    protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+        boolean reset = operation.hasDefined(ModelConstants.RESET) && operation.get(ModelConstants.RESET).asBoolean();
+
+        ModelNode result = context.getResult();
+        result.setEmptyObject();
+
+        LockManagerStatistics statistics = getStatistics(context);
+        if (statistics != null) {
+            for (Method method : Method.values()) {
+                MethodStatistics stats = statistics.getStatistics(method);
+                ModelNode node = result.get(method.name());
+                node.get(ModelConstants.LOCK_COUNT).set(stats.getLockCount());
+                node.get(ModelConstants.CONTENDED_COUNT).set(stats.getContendedCount());
+                node.get(ModelConstants.TOTAL_WAIT_TIME).set(toMicros(stats.getTotalWaitTime()));
+                node.get(ModelConstants.MAX_WAIT_TIME).set(toMicros(stats.getMaxWaitTime()));
+                node.get(ModelConstants.TOTAL_HOLD_TIME).set(toMicros(stats.getTotalHoldTime()));
+                node.get(ModelConstants.MAX_HOLD_TIME).set(toMicros(stats.getMaxHoldTime()));
+            }
+            if (reset) {
+                statistics.reset();
+            }
+        }
+
+        context.completeStep(OperationContext.RollbackHandler.NOOP_ROLLBACK_HANDLER);
+    }
+
+    private static long toMicros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+
+    private LockManagerStatistics getStatistics(OperationContext context) {
+        ServiceController<?> controller = context.getServiceRegistry(false).getService(IntegrationServices.LOCK_MANAGER_PLUGIN);
+        Object value = controller != null ? controller.getValue() : null;
+        return value instanceof LockManagerImpl ? ((LockManagerImpl) value).getStatistics() : null;
+    }
+}
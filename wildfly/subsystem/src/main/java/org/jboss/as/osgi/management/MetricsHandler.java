@@ -0,0 +1,148 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.osgi.management;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.osgi.parser.ModelConstants;
+import org.jboss.as.osgi.service.BundleLifecycleIntegration;
+import org.jboss.as.osgi.service.LatencyHistogram;
+import org.jboss.as.osgi.service.ServletStatistics;
+import org.jboss.as.osgi.service.ServletStatistics.AliasStatistics;
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Handles the runtime metrics of the OSGi subsystem.
+ *
+ * Times of the HttpService statistics are given in microseconds.
+ *
+ * @since 17-Oct-2026
+ */
+public abstract class MetricsHandler implements OperationStepHandler {
+
+    public static final MetricsHandler PENDING_DEPLOYMENTS = new MetricsHandler() {
+        @Override
+        void readMetric(OperationContext context, ModelNode operation) {
+            context.getResult().set(BundleLifecycleIntegration.getPendingDeploymentCount());
+        }
+    };
+
+    public static final MetricsHandler HTTP_ALIAS_STATISTICS = new MetricsHandler() {
+        @Override
+        void readMetric(OperationContext context, ModelNode operation) {
+            ModelNode result = context.getResult();
+            result.setEmptyObject();
+            for (AliasStatistics stats : ServletStatistics.getInstance().getAliasStatistics()) {
+                ModelNode node = result.get(stats.getAlias());
+                node.get(ModelConstants.BUNDLE).set(stats.getBundle());
+                setStatistics(node, stats.getRequestCount(), stats.getErrorCount(), stats.getInFlight(), stats.getTotalTime(), stats.getMaxTime(), stats.getHistogram().getCounts());
+            }
+        }
+    };
+
+    public static final MetricsHandler HTTP_BUNDLE_STATISTICS = new MetricsHandler() {
+        @Override
+        void readMetric(OperationContext context, ModelNode operation) {
+            Map<String, BundleStatistics> bundles = new TreeMap<String, BundleStatistics>();
+            for (AliasStatistics stats : ServletStatistics.getInstance().getAliasStatistics()) {
+                BundleStatistics aggregate = bundles.get(stats.getBundle());
+                if (aggregate == null) {
+                    aggregate = new BundleStatistics();
+                    bundles.put(stats.getBundle(), aggregate);
+                }
+                aggregate.add(stats);
+            }
+            ModelNode result = context.getResult();
+            result.setEmptyObject();
+            for (Map.Entry<String, BundleStatistics> entry : bundles.entrySet()) {
+                BundleStatistics aggregate = entry.getValue();
+                setStatistics(result.get(entry.getKey()), aggregate.requestCount, aggregate.errorCount, aggregate.inFlight, aggregate.totalTime, aggregate.maxTime, aggregate.counts);
+            }
+        }
+    };
+
+    private static final String[] PERCENTILES = new String[] { "50", "90", "99", "99.9" };
+
+    private static void setStatistics(ModelNode node, long requestCount, long errorCount, int inFlight, long totalTime, long maxTime, long[] counts) {
+        node.get(ModelConstants.REQUEST_COUNT).set(requestCount);
+        node.get(ModelConstants.ERROR_COUNT).set(errorCount);
+        node.get(ModelConstants.IN_FLIGHT).set(inFlight);
+        node.get(ModelConstants.TOTAL_TIME).set(toMicros(totalTime));
+        node.get(ModelConstants.MAX_TIME).set(toMicros(maxTime));
+        ModelNode percentiles = node.get(ModelConstants.PERCENTILES);
+        for (String percentile : PERCENTILES) {
+            percentiles.get(percentile).set(toMicros(LatencyHistogram.getPercentile(counts, Double.parseDouble(percentile))));
+        }
+        // Buckets are keyed by their upper bound
+        ModelNode histogram = node.get(ModelConstants.HISTOGRAM);
+        histogram.setEmptyObject();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                ModelNode bucket = histogram.get(String.valueOf(toMicros(LatencyHistogram.getBucketUpperBound(i))));
+                bucket.set(bucket.asLong(0) + counts[i]);
+            }
+        }
+    }
+
+    private static long toMicros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+
+    @Override
+    public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+        readMetric(context, operation);
+        context.completeStep(OperationContext.RollbackHandler.NOOP_ROLLBACK_HANDLER);
+    }
+
+    abstract void readMetric(OperationContext context, ModelNode operation) throws OperationFailedException;
+
+    private static class BundleStatistics {
+        private long requestCount;
+        private long errorCount;
+        private int inFlight;
+        private long totalTime;
+        private long maxTime;
+        private long[] counts;
+
+        void add(AliasStatistics stats) {
+            requestCount += stats.getRequestCount();
+            errorCount += stats.getErrorCount();
+            inFlight += stats.getInFlight();
+            totalTime += stats.getTotalTime();
+            maxTime = Math.max(maxTime, stats.getMaxTime());
+            long[] aliasCounts = stats.getHistogram().getCounts();
+            if (counts == null) {
+                counts = aliasCounts;
+            } else {
+                for (int i = 0; i < counts.length; i++) {
+                    counts[i] += aliasCounts[i];
+                }
+            }
+        }
+    }
+}
@@ -141,8 +141,11 @@ public class OSGiRuntimeResource implements Resource {
     public Set<ResourceEntry> getChildren(String childType) {
         if (ModelConstants.BUNDLE.equals(childType)) {
             Set<ResourceEntry> result = new TreeSet<Resource.ResourceEntry>();
-            for (String id : getBundleIDs()) {
-                result.add(new OSGiBundleResource.OSGiBundleResourceEntry(id));
+            BundleContext context = getBundleContext();
+            if (context != null) {
+                for (Bundle b : context.getBundles()) {
+                    result.add(new OSGiBundleResource.OSGiBundleResourceEntry(Long.toString(b.getBundleId())));
+                }
             }
             return result;
         } else {
@@ -35,18 +35,46 @@ public interface ModelConstants {
     String ACTIVATE = "activate";
     String ACTIVATION = "activation";
     String BUNDLE = "bundle";
+    String BUNDLES = "bundles";
     String CAPABILITY = "capability";
+    String CONTENDED_COUNT = "contended-count";
     String ENTRIES = "entries";
+    String ERROR_COUNT = "error-count";
     String FRAGMENT = "fragment";
+    String HISTOGRAM = "histogram";
+    String HTTP_ALIAS_STATISTICS = "http-alias-statistics";
+    String HTTP_BUNDLE_STATISTICS = "http-bundle-statistics";
     String ID = "id";
+    String IN_FLIGHT = "in-flight";
+    String INSTALL_BUNDLES = "install-bundles";
     String LOCATION = "location";
+    String LOCK_COUNT = "lock-count";
+    String MAX_HOLD_TIME = "max-hold-time";
+    String MAX_RESULTS = "max-results";
+    String MAX_TIME = "max-time";
+    String MAX_WAIT_TIME = "max-wait-time";
     String NAME = "name";
+    String OFFSET = "offset";
+    String PARALLELISM = "parallelism";
+    String PENDING_DEPLOYMENTS = "pending-deployments";
+    String PERCENTILES = "percentiles";
     String PROPERTY = "property";
+    String READ_BUNDLES = "read-bundles";
+    String READ_LOCK_STATISTICS = "read-lock-statistics";
+    String REQUEST_COUNT = "request-count";
+    String RESET = "reset";
     String START = "start";
+    String START_BUNDLES = "start-bundles";
     String STARTLEVEL = "startlevel";
     String STATE = "state";
     String STOP = "stop";
+    String STOP_BUNDLES = "stop-bundles";
     String SYMBOLIC_NAME = "symbolic-name";
+    String SYMBOLIC_NAME_PREFIX = "symbolic-name-prefix";
+    String TIME = "time";
+    String TOTAL_HOLD_TIME = "total-hold-time";
+    String TOTAL_TIME = "total-time";
+    String TOTAL_WAIT_TIME = "total-wait-time";
     String TYPE = "type";
     String VALUE = "value";
     String VERSION = "version";
@@ -25,6 +25,7 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUB
 
 import org.jboss.as.controller.OperationDefinition;
 import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.PrimitiveListAttributeDefinition;
 import org.jboss.as.controller.ReloadRequiredRemoveStepHandler;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
@@ -33,11 +34,17 @@ import org.jboss.as.controller.SimpleResourceDefinition;
 import org.jboss.as.controller.descriptions.ResourceDescriptionResolver;
 import org.jboss.as.controller.operations.common.GenericSubsystemDescribeHandler;
 import org.jboss.as.controller.operations.validation.EnumValidator;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
+import org.jboss.as.controller.operations.validation.StringAllowedValuesValidator;
 import org.jboss.as.controller.registry.AttributeAccess.Flag;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.OperationEntry;
 import org.jboss.as.osgi.management.ActivateOperationHandler;
 import org.jboss.as.osgi.management.ActivationAttributeHandler;
+import org.jboss.as.osgi.management.BundleBatchHandler;
+import org.jboss.as.osgi.management.BundleListHandler;
+import org.jboss.as.osgi.management.LockStatisticsHandler;
+import org.jboss.as.osgi.management.MetricsHandler;
 import org.jboss.as.osgi.management.StartLevelHandler;
 import org.jboss.as.osgi.parser.SubsystemState.Activation;
 import org.jboss.dmr.ModelNode;
@@ -62,9 +69,53 @@ public class OSGiRootResource extends SimpleResourceDefinition {
             .setStorageRuntime()
             .addFlag(Flag.RESTART_NONE)
             .build();
+    public static final SimpleAttributeDefinition PENDING_DEPLOYMENTS = new SimpleAttributeDefinitionBuilder(ModelConstants.PENDING_DEPLOYMENTS, ModelType.INT, true)
+            .setStorageRuntime()
+            .build();
+    public static final SimpleAttributeDefinition HTTP_ALIAS_STATISTICS = new SimpleAttributeDefinitionBuilder(ModelConstants.HTTP_ALIAS_STATISTICS, ModelType.OBJECT, true)
+            .setStorageRuntime()
+            .build();
+    public static final SimpleAttributeDefinition HTTP_BUNDLE_STATISTICS = new SimpleAttributeDefinitionBuilder(ModelConstants.HTTP_BUNDLE_STATISTICS, ModelType.OBJECT, true)
+            .setStorageRuntime()
+            .build();
     static final OperationDefinition ACTIVATE = new SimpleOperationDefinitionBuilder(ModelConstants.ACTIVATE, RESOLVER)
             .withFlag(OperationEntry.Flag.RESTART_NONE)
             .build();
+    static final PrimitiveListAttributeDefinition BUNDLES = new PrimitiveListAttributeDefinition.Builder(ModelConstants.BUNDLES, ModelType.STRING)
+            .build();
+    static final SimpleAttributeDefinition PARALLELISM = new SimpleAttributeDefinitionBuilder(ModelConstants.PARALLELISM, ModelType.INT, true)
+            .setDefaultValue(new ModelNode(1))
+            .build();
+    public static final SimpleAttributeDefinition STATE = new SimpleAttributeDefinitionBuilder(ModelConstants.STATE, ModelType.STRING, true)
+            .setValidator(new StringAllowedValuesValidator("INSTALLED", "RESOLVED", "STARTING", "ACTIVE", "STOPPING", "UNINSTALLED"))
+            .build();
+    public static final SimpleAttributeDefinition SYMBOLIC_NAME_PREFIX = new SimpleAttributeDefinitionBuilder(ModelConstants.SYMBOLIC_NAME_PREFIX, ModelType.STRING, true)
+            .build();
+    public static final SimpleAttributeDefinition OFFSET = new SimpleAttributeDefinitionBuilder(ModelConstants.OFFSET, ModelType.INT, true)
+            .setDefaultValue(new ModelNode(0))
+            .setValidator(new IntRangeValidator(0, true))
+            .build();
+    public static final SimpleAttributeDefinition MAX_RESULTS = new SimpleAttributeDefinitionBuilder(ModelConstants.MAX_RESULTS, ModelType.INT, true)
+            .setValidator(new IntRangeValidator(0, true))
+            .build();
+    static final OperationDefinition READ_BUNDLES = new SimpleOperationDefinitionBuilder(ModelConstants.READ_BUNDLES, RESOLVER)
+            .setParameters(STATE, SYMBOLIC_NAME_PREFIX, OFFSET, MAX_RESULTS)
+            .setReplyType(ModelType.LIST)
+            .setReplyValueType(ModelType.OBJECT)
+            .setReadOnly()
+            .setRuntimeOnly()
+            .build();
+    static final SimpleAttributeDefinition RESET = new SimpleAttributeDefinitionBuilder(ModelConstants.RESET, ModelType.BOOLEAN, true)
+            .setDefaultValue(new ModelNode(false))
+            .build();
+    static final OperationDefinition READ_LOCK_STATISTICS = new SimpleOperationDefinitionBuilder(ModelConstants.READ_LOCK_STATISTICS, RESOLVER)
+            .setParameters(RESET)
+            .setReplyType(ModelType.OBJECT)
+            .setRuntimeOnly()
+            .build();
+    static final OperationDefinition INSTALL_BUNDLES = getBatchOperation(ModelConstants.INSTALL_BUNDLES);
+    static final OperationDefinition START_BUNDLES = getBatchOperation(ModelConstants.START_BUNDLES);
+    static final OperationDefinition STOP_BUNDLES = getBatchOperation(ModelConstants.STOP_BUNDLES);
     final boolean registerRuntimeOnly;
 
     OSGiRootResource(final boolean registerRuntimeOnly) {
@@ -78,6 +129,9 @@ public class OSGiRootResource extends SimpleResourceDefinition {
         resourceRegistration.registerReadWriteAttribute(ACTIVATION, null, ActivationAttributeHandler.INSTANCE);
         if (registerRuntimeOnly) {
             resourceRegistration.registerReadWriteAttribute(STARTLEVEL, StartLevelHandler.READ_HANDLER, StartLevelHandler.WRITE_HANDLER);
+            resourceRegistration.registerMetric(PENDING_DEPLOYMENTS, MetricsHandler.PENDING_DEPLOYMENTS);
+            resourceRegistration.registerMetric(HTTP_ALIAS_STATISTICS, MetricsHandler.HTTP_ALIAS_STATISTICS);
+            resourceRegistration.registerMetric(HTTP_BUNDLE_STATISTICS, MetricsHandler.HTTP_BUNDLE_STATISTICS);
         }
     }
 
@@ -87,9 +141,24 @@ public class OSGiRootResource extends SimpleResourceDefinition {
         resourceRegistration.registerOperationHandler(GenericSubsystemDescribeHandler.DEFINITION, GenericSubsystemDescribeHandler.INSTANCE);
         if (registerRuntimeOnly) {
             resourceRegistration.registerOperationHandler(ACTIVATE, ActivateOperationHandler.INSTANCE);
+            resourceRegistration.registerOperationHandler(READ_BUNDLES, BundleListHandler.INSTANCE);
+            resourceRegistration.registerOperationHandler(READ_LOCK_STATISTICS, LockStatisticsHandler.INSTANCE);
+            resourceRegistration.registerOperationHandler(INSTALL_BUNDLES, BundleBatchHandler.INSTALL_HANDLER);
+            resourceRegistration.registerOperationHandler(START_BUNDLES, BundleBatchHandler.START_HANDLER);
+            resourceRegistration.registerOperationHandler(STOP_BUNDLES, BundleBatchHandler.STOP_HANDLER);
         }
     }
 
+    private static OperationDefinition getBatchOperation(String name) {
+        return new SimpleOperationDefinitionBuilder(name, RESOLVER)
+                .setParameters(BUNDLES, PARALLELISM)
+                .setReplyType(ModelType.LIST)
+                .setReplyValueType(ModelType.OBJECT)
+                .withFlag(OperationEntry.Flag.RESTART_NONE)
+                .setRuntimeOnly()
+                .build();
+    }
+
     @Override
     public void registerChildren(ManagementResourceRegistration resourceRegistration) {
         resourceRegistration.registerSubModel(new FrameworkPropertyResource());
@@ -30,9 +30,10 @@ import java.io.File;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
 import org.jboss.as.osgi.OSGiConstants;
 import org.jboss.as.osgi.parser.SubsystemState;
 import org.jboss.as.osgi.parser.SubsystemState.OSGiCapability;
@@ -85,6 +86,9 @@ import org.osgi.service.repository.ContentNamespace;
  */
 class BootstrapBundlesIntegration extends BootstrapBundlesInstall<Void> {
 
+    /** The number of threads used to resolve the initial capabilities. Use 'true' for the number of processors, the default is serial. */
+    static final String PROP_JBOSS_OSGI_BOOTSTRAP_PARALLELISM = "org.jboss.osgi.bootstrap.parallelism";
+
     private final InjectedValue<BundleManager> injectedBundleManager = new InjectedValue<BundleManager>();
     private final InjectedValue<StorageManager> injectedStorageManager = new InjectedValue<StorageManager>();
     private final InjectedValue<ServerEnvironment> injectedServerEnvironment = new InjectedValue<ServerEnvironment>();
@@ -94,7 +98,6 @@ class BootstrapBundlesIntegration extends BootstrapBundlesInstall<Void> {
     private final InjectedValue<XRepository> injectedRepository = new InjectedValue<XRepository>();
     private final InjectedValue<ResourceInstaller> injectedResourceInstaller = new InjectedValue<ResourceInstaller>();
     private List<OSGiCapability> modulecaps;
-    private List<File> bundlesPath;
 
     BootstrapBundlesIntegration() {
         super(IntegrationServices.BOOTSTRAP_BUNDLES);
@@ -116,8 +119,6 @@ class BootstrapBundlesIntegration extends BootstrapBundlesInstall<Void> {
     @Override
     public synchronized void start(StartContext context) throws StartException {
         List<Deployment> deployments = new ArrayList<Deployment>();
-        ServerEnvironment serverEnvironment = injectedServerEnvironment.getValue();
-        bundlesPath = LayeredBundlePathFactory.resolveLayeredBundlePath(serverEnvironment);
 
         modulecaps = new ArrayList<OSGiCapability>();
 
@@ -126,64 +127,110 @@ class BootstrapBundlesIntegration extends BootstrapBundlesInstall<Void> {
             configcaps.add(new OSGiCapability(capspec, null));
         }
         configcaps.addAll(injectedSubsystemState.getValue().getCapabilities());
-        Iterator<OSGiCapability> iterator = configcaps.iterator();
-        while (iterator.hasNext()) {
-            OSGiCapability configcap = iterator.next();
-            String identifier = configcap.getIdentifier();
-            if (isValidModuleIdentifier(identifier)) {
+
+        // Resolve the initial capabilities, possibly in parallel
+        long startTime = System.currentTimeMillis();
+        List<InitialCapability> initialcaps = resolveInitialCapabilities(configcaps);
+        for (InitialCapability initialcap : initialcaps) {
+            LOGGER.debugf("Resolved initial capability %s in %dms", initialcap.getIdentifier(), initialcap.getResolveTime());
+            if (initialcap.getFailure() != null) {
+                throw MESSAGES.startFailedToProcessInitialCapability(initialcap.getFailure(), initialcap.getIdentifier());
+            }
+        }
+
+        // Install the module capabilities in the declared order
+        for (InitialCapability initialcap : initialcaps) {
+            if (initialcap.getModuleResource() != null) {
                 try {
-                    XBundle bundle = installInitialModuleCapability(configcap);
-                    if (bundle != null) {
-                        modulecaps.add(configcap);
-                        iterator.remove();
-                    }
+                    installInitialModuleCapability(initialcap.getCapability(), initialcap.getModuleResource());
+                    modulecaps.add(initialcap.getCapability());
                 } catch (Exception ex) {
-                    throw MESSAGES.startFailedToProcessInitialCapability(ex, identifier);
+                    throw MESSAGES.startFailedToProcessInitialCapability(ex, initialcap.getIdentifier());
                 }
             }
         }
 
-        for (OSGiCapability configcap : configcaps) {
-            String identifier = configcap.getIdentifier();
-            try {
-                Deployment dep = getInitialBundleDeployment(configcap);
-                deployments.add(dep);
-            } catch (Exception ex) {
-                throw MESSAGES.startFailedToProcessInitialCapability(ex, identifier);
+        // Assign the bundle identifiers in the declared order
+        for (InitialCapability initialcap : initialcaps) {
+            if (initialcap.getDeployment() != null) {
+                try {
+                    Deployment dep = initialcap.getDeployment();
+                    attachStorageState(dep, initialcap.getIdentifier(), initialcap.getCapability().getStartLevel());
+                    deployments.add(dep);
+                } catch (Exception ex) {
+                    throw MESSAGES.startFailedToProcessInitialCapability(ex, initialcap.getIdentifier());
+                }
             }
         }
+        LOGGER.debugf("Processed %d initial capabilities in %dms", initialcaps.size(), System.currentTimeMillis() - startTime);
 
         // Install the bundles from the given locations
         installBootstrapBundles(context.getChildTarget(), deployments);
     }
 
+    private List<InitialCapability> resolveInitialCapabilities(List<OSGiCapability> configcaps) {
+        List<InitialCapability> initialcaps = new ArrayList<InitialCapability>();
+        for (OSGiCapability configcap : configcaps) {
+            initialcaps.add(new InitialCapability(configcap));
+        }
+
+        int parallelism = Math.min(getBootstrapParallelism(), initialcaps.size());
+        if (parallelism <= 1) {
+            for (InitialCapability initialcap : initialcaps) {
+                initialcap.call();
+            }
+        } else {
+            LOGGER.debugf("Resolving %d initial capabilities with parallelism %d", initialcaps.size(), parallelism);
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                pool.invokeAll(initialcaps);
+            } finally {
+                pool.shutdown();
+            }
+        }
+        return initialcaps;
+    }
+
+    private int getBootstrapParallelism() {
+        String value = injectedSystemContext.getValue().getProperty(PROP_JBOSS_OSGI_BOOTSTRAP_PARALLELISM);
+        if (value == null || value.trim().isEmpty()) {
+            return 1;
+        }
+        value = value.trim();
+        if (Boolean.parseBoolean(value)) {
+            return Runtime.getRuntime().availableProcessors();
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException ex) {
+            LOGGER.debugf("Invalid bootstrap parallelism, falling back to serial: %s", value);
+            return 1;
+        }
+    }
+
     @Override
     protected ServiceController<Void> installResolveService(ServiceTarget serviceTarget, Set<XBundleRevision> installedRevisions) {
         return new BootstrapResolveIntegration(getServiceName().getParent(), installedRevisions).install(serviceTarget, getServiceListener());
     }
 
-    private XBundle installInitialModuleCapability(OSGiCapability configcap) throws Exception {
+    private XResource getInitialModuleResource(OSGiCapability configcap) throws Exception {
         String identifier = configcap.getIdentifier();
         ModuleIdentifier moduleId = ModuleIdentifier.fromString(identifier);
 
-        // Find the module in the bundles hierarchy
-        ModuleIdentityRepositoryIntegration repository = getModuleIdentityRepository();
-        File bundleFile = repository.getRepositoryEntry(bundlesPath, moduleId);
-        if (bundleFile != null)
-            return null;
-
-        LOGGER.tracef("Installing initial module capability: %s", identifier);
-
         // Build the module requirement
         XRequirementBuilder reqbuilder = XRequirementBuilder.create(moduleId);
         XRequirement modreq = reqbuilder.getRequirement();
 
-        Collection<Capability> caps = repository.findProviders(modreq);
+        Collection<Capability> caps = getModuleIdentityRepository().findProviders(modreq);
         if (caps.isEmpty()) {
             throw MESSAGES.cannotResolveInitialCapability(null, identifier);
         }
         XCapability icap = (XCapability) caps.iterator().next();
-        XResource resource = icap.getResource();
+        return icap.getResource();
+    }
+
+    private XBundle installInitialModuleCapability(OSGiCapability configcap, XResource resource) throws Exception {
+        LOGGER.tracef("Installing initial module capability: %s", configcap.getIdentifier());
 
         BundleContext syscontext = injectedSystemContext.getValue();
         ResourceInstaller installer = injectedResourceInstaller.getValue();
@@ -199,23 +246,17 @@ class BootstrapBundlesIntegration extends BootstrapBundlesInstall<Void> {
         return bundle;
     }
 
-    private Deployment getInitialBundleDeployment(OSGiCapability configcap) throws Exception {
+    private Deployment getInitialBundleDeployment(OSGiCapability configcap, File bundleFile) throws Exception {
         String identifier = configcap.getIdentifier();
         Integer level = configcap.getStartLevel();
 
         Deployment deployment = null;
 
-        // Try the identifier as ModuleIdentifier
-        if (isValidModuleIdentifier(identifier)) {
-            ModuleIdentifier moduleId = ModuleIdentifier.fromString(identifier);
-
-            // Attempt to install the bundle from the bundles hierarchy
-            File bundleFile = getModuleIdentityRepository().getRepositoryEntry(bundlesPath, moduleId);
-            if (bundleFile != null) {
-                LOGGER.tracef("Installing initial bundle capability: %s", identifier);
-                URL bundleURL = bundleFile.toURI().toURL();
-                deployment = getDeploymentFromURL(bundleURL, identifier, level);
-            }
+        // Install the bundle from the bundles hierarchy
+        if (bundleFile != null) {
+            LOGGER.tracef("Installing initial bundle capability: %s", identifier);
+            URL bundleURL = bundleFile.toURI().toURL();
+            deployment = getDeploymentFromURL(bundleURL, identifier, level);
         }
 
         // Try the identifier as MavenCoordinates
@@ -274,13 +315,83 @@ class BootstrapBundlesIntegration extends BootstrapBundlesInstall<Void> {
             dep.setStartLevel(level.intValue());
             dep.setAutoStart(true);
         }
+        return dep;
+    }
+
+    private void attachStorageState(Deployment dep, String location, Integer level) throws Exception {
+        int startlevel = level != null ? level.intValue() : 0;
         StorageManager storageManager = injectedStorageManager.getValue();
         Long bundleId = injectedEnvironment.getValue().nextResourceIdentifier(null, dep.getSymbolicName());
         StorageState storageState = storageManager.createStorageState(bundleId, location, startlevel, null);
         dep.putAttachment(STORAGE_STATE_KEY, storageState);
-        return dep;
     }
 
+    /**
+     * Resolves a configured capability to either an adapted module resource or a bundle {@link Deployment}.
+     *
+     * Resolution only reads from the repositories and the bundles hierarchy. Installing the module resources and
+     * assigning bundle identifiers is done afterwards in the declared order.
+     */
+    class InitialCapability implements Callable<InitialCapability> {
+
+        private final OSGiCapability configcap;
+        private XResource moduleResource;
+        private Deployment deployment;
+        private Exception failure;
+        private long resolveTime;
+
+        InitialCapability(OSGiCapability configcap) {
+            this.configcap = configcap;
+        }
+
+        @Override
+        public InitialCapability call() {
+            long startTime = System.currentTimeMillis();
+            String identifier = configcap.getIdentifier();
+            try {
+                File bundleFile = null;
+                if (isValidModuleIdentifier(identifier)) {
+                    ModuleIdentifier moduleId = ModuleIdentifier.fromString(identifier);
+                    bundleFile = getModuleIdentityRepository().getRepositoryEntry(moduleId);
+                    if (bundleFile == null) {
+                        moduleResource = getInitialModuleResource(configcap);
+                    }
+                }
+                if (moduleResource == null) {
+                    deployment = getInitialBundleDeployment(configcap, bundleFile);
+                }
+            } catch (Exception ex) {
+                failure = ex;
+            } finally {
+                resolveTime = System.currentTimeMillis() - startTime;
+            }
+            return this;
+        }
+
+        OSGiCapability getCapability() {
+            return configcap;
+        }
+
+        String getIdentifier() {
+            return configcap.getIdentifier();
+        }
+
+        XResource getModuleResource() {
+            return moduleResource;
+        }
+
+        Deployment getDeployment() {
+            return deployment;
+        }
+
+        Exception getFailure() {
+            return failure;
+        }
+
+        long getResolveTime() {
+            return resolveTime;
+        }
+    }
 
     class BootstrapResolveIntegration extends BootstrapBundlesResolve<Void> {
 
@@ -0,0 +1,167 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.osgi.service;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADD;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ARCHIVE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.COMPOSITE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CONTENT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DEPLOY;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DEPLOYMENT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.PATH;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RUNTIME_NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.STEPS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
+import static org.jboss.as.osgi.OSGiLogger.LOGGER;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.client.ModelControllerClient;
+import org.jboss.as.controller.client.helpers.standalone.ServerDeploymentHelper;
+import org.jboss.as.controller.client.helpers.standalone.ServerDeploymentManager;
+import org.jboss.dmr.ModelNode;
+import org.jboss.osgi.deployment.deployer.Deployment;
+import org.jboss.osgi.vfs.AbstractVFS;
+import org.jboss.osgi.vfs.VirtualFile;
+import org.jboss.vfs.VFSUtils;
+
+/**
+ * Deploys bundle content through the server deployment API.
+ *
+ * Bundle content that is kept in the framework storage area is deployed by reference to the file. This avoids a copy
+ * into the content repository and the hashing that comes with it. The storage file remains in place for as long as the
+ * bundle revision is installed, which is also the lifetime of the server deployment. Any other content is streamed to
+ * the content repository.
+ *
+ * @since 17-Oct-2026
+ */
+final class BundleContentDeployer {
+
+    private final ModelControllerClient modelControllerClient;
+    private final ServerDeploymentManager serverDeploymentManager;
+    private final File storageDir;
+
+    BundleContentDeployer(ModelControllerClient modelControllerClient, ServerDeploymentManager serverDeploymentManager, File storageDir) {
+        this.modelControllerClient = modelControllerClient;
+        this.serverDeploymentManager = serverDeploymentManager;
+        this.storageDir = storageDir != null ? storageDir.getAbsoluteFile() : null;
+    }
+
+    /**
+     * Deploy the content of the given deployment with the given runtime name.
+     */
+    void deploy(String runtimeName, Deployment deployment) throws Exception {
+        File contentFile = getStorageFile(deployment.getRoot());
+        if (contentFile != null) {
+            LOGGER.debugf("Deploy by reference: %s", contentFile);
+            deployByReference(runtimeName, contentFile);
+        } else {
+            InputStream input = deployment.getRoot().openStream();
+            try {
+                ServerDeploymentHelper server = new ServerDeploymentHelper(serverDeploymentManager);
+                server.deploy(runtimeName, input);
+            } finally {
+                VFSUtils.safeClose(input);
+            }
+        }
+    }
+
+    void undeploy(String runtimeName) throws Exception {
+        ServerDeploymentHelper server = new ServerDeploymentHelper(serverDeploymentManager);
+        server.undeploy(runtimeName);
+    }
+
+    /**
+     * Get a root file that stays valid after the server deployment of the given root is removed.
+     *
+     * A root in the storage area is used as is, any other root is copied.
+     */
+    VirtualFile getDetachedRoot(VirtualFile rootFile) throws IOException {
+        File contentFile = getStorageFile(rootFile);
+        if (contentFile != null) {
+            return AbstractVFS.toVirtualFile(contentFile.toURI().toURL());
+        }
+        InputStream input = rootFile.getStreamURL().openStream();
+        return AbstractVFS.toVirtualFile(input);
+    }
+
+    /**
+     * Get the archive file in the framework storage area that backs the given root or null.
+     */
+    File getStorageFile(VirtualFile rootFile) {
+        if (storageDir == null || rootFile == null)
+            return null;
+
+        URI streamURI;
+        try {
+            streamURI = rootFile.getStreamURL().toURI();
+        } catch (IOException ex) {
+            return null;
+        } catch (URISyntaxException ex) {
+            return null;
+        }
+        String scheme = streamURI.getScheme();
+        if (!"file".equals(scheme) && !"vfs".equals(scheme) || streamURI.getPath() == null)
+            return null;
+
+        File file = new File(streamURI.getPath()).getAbsoluteFile();
+        if (!file.isFile())
+            return null;
+
+        String storagePath = storageDir.getPath() + File.separator;
+        return file.getPath().startsWith(storagePath) ? file : null;
+    }
+
+    private void deployByReference(String runtimeName, File contentFile) throws IOException, OperationFailedException {
+        ModelNode composite = new ModelNode();
+        composite.get(OP).set(COMPOSITE);
+        composite.get(OP_ADDR).setEmptyList();
+        ModelNode steps = composite.get(STEPS);
+
+        ModelNode add = steps.add();
+        add.get(OP).set(ADD);
+        add.get(OP_ADDR).add(DEPLOYMENT, runtimeName);
+        add.get(RUNTIME_NAME).set(runtimeName);
+        ModelNode content = add.get(CONTENT).add();
+        content.get(PATH).set(contentFile.getPath());
+        content.get(ARCHIVE).set(true);
+
+        ModelNode deploy = steps.add();
+        deploy.get(OP).set(DEPLOY);
+        deploy.get(OP_ADDR).add(DEPLOYMENT, runtimeName);
+
+        ModelNode result = modelControllerClient.execute(composite);
+        if (!SUCCESS.equals(result.get(OUTCOME).asString())) {
+            throw new OperationFailedException(result.get(FAILURE_DESCRIPTION).asString());
+        }
+    }
+}
@@ -25,25 +25,17 @@ import static org.jboss.as.osgi.OSGiLogger.LOGGER;
 import static org.jboss.as.osgi.OSGiMessages.MESSAGES;
 import static org.jboss.as.server.Services.JBOSS_SERVER_CONTROLLER;
 
+import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
-import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
 
 import org.jboss.as.controller.ModelController;
 import org.jboss.as.controller.client.ModelControllerClient;
-import org.jboss.as.controller.client.helpers.standalone.ServerDeploymentHelper;
 import org.jboss.as.controller.client.helpers.standalone.ServerDeploymentManager;
 import org.jboss.as.osgi.OSGiConstants;
 import org.jboss.as.osgi.deployment.BundleDeploymentProcessor;
@@ -58,10 +50,8 @@ import org.jboss.msc.service.ServiceBuilder;
 import org.jboss.msc.service.ServiceContainer;
 import org.jboss.msc.service.ServiceController;
 import org.jboss.msc.service.ServiceController.Mode;
-import org.jboss.msc.service.ServiceController.State;
 import org.jboss.msc.service.ServiceName;
 import org.jboss.msc.service.ServiceRegistry;
-import org.jboss.msc.service.StabilityMonitor;
 import org.jboss.msc.service.StartContext;
 import org.jboss.msc.service.StartException;
 import org.jboss.msc.service.StopContext;
@@ -85,11 +75,10 @@ import org.jboss.osgi.resolver.XResolveContext;
 import org.jboss.osgi.resolver.XResolver;
 import org.jboss.osgi.resolver.XResource;
 import org.jboss.osgi.spi.AttachmentKey;
-import org.jboss.osgi.vfs.AbstractVFS;
 import org.jboss.osgi.vfs.VirtualFile;
-import org.jboss.vfs.VFSUtils;
 import org.osgi.framework.BundleContext;
 import org.osgi.framework.BundleException;
+import org.osgi.framework.Constants;
 import org.osgi.framework.startlevel.BundleStartLevel;
 import org.osgi.framework.startlevel.FrameworkStartLevel;
 import org.osgi.framework.wiring.BundleRevisions;
@@ -107,7 +96,10 @@ public final class BundleLifecycleIntegration extends BundleLifecyclePlugin {
     private static final AttachmentKey<String> RUNTIME_NAME_KEY = AttachmentKey.create(String.class);
     private static final AttachmentKey<Boolean> BUNDLE_REFRESHING_KEY = AttachmentKey.create(Boolean.class);
 
-    private static final Map<String, Deployment> deploymentMap = new HashMap<String, Deployment>();
+    /** The time in milliseconds after which an unclaimed pending deployment is purged */
+    static final String PROP_JBOSS_OSGI_DEPLOYMENT_TIMEOUT = "org.jboss.osgi.deployment.pending.timeout";
+
+    private static final PendingDeploymentRegistry pendingDeployments = new PendingDeploymentRegistry();
 
     private final InjectedValue<ModelController> injectedController = new InjectedValue<ModelController>();
     private final InjectedValue<BundleManager> injectedBundleManager = new InjectedValue<BundleManager>();
@@ -116,8 +108,8 @@ public final class BundleLifecycleIntegration extends BundleLifecyclePlugin {
     private final InjectedValue<StorageManager> injectedStorageManager = new InjectedValue<StorageManager>();
     private final InjectedValue<DeploymentProvider> injectedDeploymentManager = new InjectedValue<DeploymentProvider>();
     private final InjectedValue<LockManager> injectedLockManager = new InjectedValue<LockManager>();
-    private ServerDeploymentManager serverDeploymentManager;
     private ModelControllerClient modelControllerClient;
+    private BundleContentDeployer contentDeployer;
 
     @Override
     protected void addServiceDependencies(ServiceBuilder<BundleLifecycle> builder) {
@@ -138,7 +130,23 @@ public final class BundleLifecycleIntegration extends BundleLifecyclePlugin {
         super.start(startContext);
         ModelController modelController = injectedController.getValue();
         modelControllerClient = modelController.createClient(Executors.newCachedThreadPool());
-        serverDeploymentManager =  ServerDeploymentManager.Factory.create(modelControllerClient);
+        ServerDeploymentManager serverDeploymentManager = ServerDeploymentManager.Factory.create(modelControllerClient);
+        BundleContext syscontext = injectedBundleManager.getValue().getSystemBundle().getBundleContext();
+
+        // Content in a storage area that is cleaned on restart cannot be deployed by reference
+        String storage = syscontext.getProperty(Constants.FRAMEWORK_STORAGE);
+        String storageClean = syscontext.getProperty(Constants.FRAMEWORK_STORAGE_CLEAN);
+        File storageDir = storage != null && !Constants.FRAMEWORK_STORAGE_CLEAN_ONFIRSTINIT.equals(storageClean) ? new File(storage) : null;
+        contentDeployer = new BundleContentDeployer(modelControllerClient, serverDeploymentManager, storageDir);
+
+        String timeout = syscontext.getProperty(PROP_JBOSS_OSGI_DEPLOYMENT_TIMEOUT);
+        if (timeout != null) {
+            try {
+                pendingDeployments.setTimeout(Long.parseLong(timeout.trim()));
+            } catch (NumberFormatException ex) {
+                LOGGER.warnInvalidPropertyValue(timeout, PROP_JBOSS_OSGI_DEPLOYMENT_TIMEOUT, pendingDeployments.getTimeout());
+            }
+        }
     }
 
     @Override
@@ -157,28 +165,71 @@ public final class BundleLifecycleIntegration extends BundleLifecyclePlugin {
     }
 
     public static Deployment getDeployment(String runtimeName) {
-        synchronized (deploymentMap) {
-            return deploymentMap.get(runtimeName);
-        }
+        return pendingDeployments.getDeployment(runtimeName);
     }
 
     public static Deployment removeDeployment(String runtimeName) {
-        synchronized (deploymentMap) {
-            return deploymentMap.remove(runtimeName);
-        }
+        return pendingDeployments.removeDeployment(runtimeName);
     }
 
     private void putDeployment(String runtimeName, final Deployment dep) {
-        synchronized (deploymentMap) {
-            deploymentMap.put(runtimeName, dep);
-        }
+        pendingDeployments.putDeployment(runtimeName, dep);
+    }
+
+    /**
+     * Get the number of deployments that are not yet picked up by the {@link BundleDeploymentProcessor}.
+     */
+    public static int getPendingDeploymentCount() {
+        return pendingDeployments.getPendingCount();
     }
 
     public static boolean isBundleRefreshing(XBundle bundle) {
         return Boolean.TRUE.equals(bundle.getAttachment(BUNDLE_REFRESHING_KEY));
     }
 
-    class BundleLifecycleImpl implements BundleLifecycle {
+    // Maps the bundle.location to a deployment runtime name
+    static String getRuntimeName(Deployment deployment) {
+        String runtimeName = deployment.getAttachment(RUNTIME_NAME_KEY);
+        if (runtimeName == null) {
+            runtimeName = createRuntimeName(deployment);
+            deployment.putAttachment(RUNTIME_NAME_KEY, runtimeName);
+        }
+        return runtimeName;
+    }
+
+    /**
+     * Create the runtime name for the given deployment without caching it.
+     *
+     * This is a package-private seam for the {@code RuntimeNameBenchmark} in the benchmarks module.
+     */
+    static String createRuntimeName(Deployment deployment) {
+        String runtimeName = deployment.getLocation();
+        try {
+            // Strip the query off the location if it is a valid URI
+            new URI(runtimeName);
+            int queryIndex = runtimeName.indexOf('?');
+            if (queryIndex > 0) {
+                runtimeName = runtimeName.substring(0, queryIndex);
+            }
+        } catch (URISyntaxException ex) {
+            // ignore
+        }
+        if (deployment.isBundleUpdate()) {
+            String suffix = "";
+            XBundle bundle = deployment.getAttachment(IntegrationConstants.BUNDLE_KEY);
+            BundleRevisions brevs = bundle.adapt(BundleRevisions.class);
+            int revid = brevs.getRevisions().size();
+            int dotindex = runtimeName.length() - 4;
+            if (dotindex > 0 && runtimeName.charAt(dotindex) == '.') {
+                suffix = runtimeName.substring(runtimeName.length() - 4);
+                runtimeName = runtimeName.substring(0, dotindex);
+            }
+            runtimeName += "-rev" + revid + suffix;
+        }
+        return runtimeName;
+    }
+
+    public final class BundleLifecycleImpl implements BundleLifecycle {
 
         private final BundleManager bundleManager;
         private final XEnvironment environment;
@@ -209,17 +260,13 @@ public final class BundleLifecycleIntegration extends BundleLifecyclePlugin {
             String runtimeName = getRuntimeName(deployment);
             putDeployment(runtimeName, deployment);
             try {
-                InputStream input = deployment.getRoot().openStream();
-                try {
-                    ServerDeploymentHelper server = new ServerDeploymentHelper(serverDeploymentManager);
-                    server.deploy(runtimeName, input);
-                } finally {
-                    VFSUtils.safeClose(input);
-                }
+                contentDeployer.deploy(runtimeName, deployment);
             } catch (RuntimeException rte) {
                 throw rte;
             } catch (Exception ex) {
                 throw MESSAGES.cannotDeployBundleRevision(ex, deployment);
+            } finally {
+                removeDeployment(runtimeName);
             }
 
             // For an already existing bundle (i.e. same location) the
@@ -257,8 +304,17 @@ public final class BundleLifecycleIntegration extends BundleLifecyclePlugin {
         }
 
         @Override
-        @SuppressWarnings("unchecked")
         public void start(XBundle bundle, int options) throws BundleException {
+            startAsync(bundle, options).awaitCompletion();
+        }
+
+        /**
+         * Start the given bundle without waiting for a deferred module phase to get activated.
+         *
+         * @return a handle that completes when the bundle deployment is activated
+         */
+        @SuppressWarnings("unchecked")
+        public DeferredPhaseActivation startAsync(XBundle bundle, int options) throws BundleException {
             Deployment deployment = bundle.adapt(Deployment.class);
             DeploymentUnit depUnit = deployment.getAttachment(BundleDeploymentProcessor.DEPLOYMENT_UNIT_KEY);
 
@@ -267,33 +323,24 @@ public final class BundleLifecycleIntegration extends BundleLifecyclePlugin {
             // https://issues.jboss.org/browse/AS7-5642
             if (depUnit == null) {
                 bundleManager.startBundle(bundle, options);
-                return;
+                return DeferredPhaseActivation.completed(bundle);
             }
 
             // There is no deferred phase, activate using the default
             List<String> deferredModules = DeploymentUtils.getDeferredModules(depUnit);
             if (!deferredModules.contains(depUnit.getName())) {
                 bundleManager.startBundle(bundle, options);
-                return;
+                return DeferredPhaseActivation.completed(bundle);
             }
 
             // Get the INSTALL phase service and check whether we need to activate it
             ServiceController<Phase> phaseService = getDeferredPhaseService(depUnit);
             if (phaseService.getMode() != Mode.NEVER) {
                 bundleManager.startBundle(bundle, options);
-                return;
-            }
-
-            final ServiceName deploymentServiceName;
-            if (depUnit.getParent() == null) {
-                deploymentServiceName = depUnit.getServiceName();
-            } else {
-                deploymentServiceName = depUnit.getParent().getServiceName();
+                return DeferredPhaseActivation.completed(bundle);
             }
 
-            ServiceContainer serviceContainer = bundleManager.getServiceContainer();
-            ServiceController<DeploymentUnit> deploymentService = (ServiceController<DeploymentUnit>) serviceContainer.getRequiredService(deploymentServiceName);
-            activateDeferredPhase(bundle, options, depUnit, phaseService, deploymentService);
+            return activateDeferredPhase(bundle, options, depUnit, phaseService);
         }
 
         @Override
@@ -313,10 +360,9 @@ public final class BundleLifecycleIntegration extends BundleLifecyclePlugin {
         }
 
         private void undeployRevision(XBundleRevision brev) {
-            ServerDeploymentHelper server = new ServerDeploymentHelper(serverDeploymentManager);
             try {
                 Deployment deployment = brev.getAttachment(IntegrationConstants.DEPLOYMENT_KEY);
-                server.undeploy(getRuntimeName(deployment));
+                contentDeployer.undeploy(getRuntimeName(deployment));
             } catch (Exception ex) {
                 LOGGER.warnCannotUndeployBundleRevision(ex, brev);
             }
@@ -327,8 +373,7 @@ public final class BundleLifecycleIntegration extends BundleLifecyclePlugin {
             return new RecreateCurrentRevisionPolicy();
         }
 
-        private void activateDeferredPhase(XBundle bundle, int options, DeploymentUnit depUnit, ServiceController<Phase> phaseService,
-                ServiceController<DeploymentUnit> parentDeploymentService) throws BundleException {
+        private DeferredPhaseActivation activateDeferredPhase(XBundle bundle, int options, DeploymentUnit depUnit, ServiceController<Phase> phaseService) throws BundleException {
 
             // If the Framework's current start level is less than this bundle's start level
             FrameworkStartLevel frameworkStartLevel = bundleManager.getSystemBundle().adapt(FrameworkStartLevel.class);
@@ -336,7 +381,7 @@ public final class BundleLifecycleIntegration extends BundleLifecyclePlugin {
             int startlevel = bundleStartLevel.getStartLevel();
             if (startlevel > frameworkStartLevel.getStartLevel()) {
                 LOGGER.debugf("Start level [%d] not valid for: %s", startlevel, bundle);
-                return;
+                return DeferredPhaseActivation.completed(bundle);
             }
 
             LOGGER.infoActivateDeferredModulePhase(bundle);
@@ -352,96 +397,10 @@ public final class BundleLifecycleIntegration extends BundleLifecyclePlugin {
 
             depUnit.getAttachment(Attachments.DEFERRED_ACTIVATION_COUNT).incrementAndGet();
 
-            StabilityMonitor monitor = new StabilityMonitor();
-            monitor.addController(parentDeploymentService);
-            monitor.addController(phaseService);
-            Set<ServiceController<?>> failed = new HashSet<ServiceController<?>>();
-            Set<ServiceController<?>> problems = new HashSet<ServiceController<?>>();
-            try {
-                phaseService.setMode(Mode.ACTIVE);
-                monitor.awaitStability(failed, problems);
-            } catch (final InterruptedException ex) {
-                // ignore
-            } finally {
-                monitor.clear();
-            }
-
-            // In case of failure we go back to NEVER
-
-            if (failed.size() > 0 || problems.size() > 0) {
-                List<ServiceController<?>> combined = new ArrayList<ServiceController<?>>();
-                combined.addAll(failed);
-                combined.addAll(problems);
-
-                // Collect the first start exception
-                StartException startex = null;
-                for (ServiceController<?> aux : combined) {
-                    if (aux.getStartException() != null) {
-                        startex = aux.getStartException();
-                        break;
-                    }
-                }
-
-                // Create the BundleException that we throw later
-                BundleException failure;
-                if (startex != null && startex.getCause() instanceof BundleException) {
-                    failure = (BundleException) startex.getCause();
-                } else {
-                    failure = MESSAGES.cannotActivateDeferredModulePhase(startex, bundle);
-                }
-
-                // Deactivate the deferred phase
-                depUnit.putAttachment(OSGiConstants.DEFERRED_ACTIVATION_FAILED, Boolean.TRUE);
-                LOGGER.warnDeactivateDeferredModulePhase(bundle);
-                phaseService.setMode(Mode.NEVER);
-
-                // Wait for the phase service to come down
-                try {
-                    FutureServiceValue<Phase> future = new FutureServiceValue<Phase>(phaseService, State.DOWN);
-                    future.get(30, TimeUnit.SECONDS);
-                } catch (ExecutionException ex) {
-                    LOGGER.errorf(failure, failure.getMessage());
-                    throw MESSAGES.cannotDeactivateDeferredModulePhase(ex, bundle);
-                } catch (TimeoutException ex) {
-                    LOGGER.errorf(failure, failure.getMessage());
-                    throw MESSAGES.cannotDeactivateDeferredModulePhase(ex, bundle);
-                }
-
-                // Throw the BundleException that caused the start failure
-                throw failure;
-            }
-        }
-
-        // Maps the bundle.location to a deployment runtime name
-        private String getRuntimeName(Deployment deployment) {
-            String runtimeName = deployment.getAttachment(RUNTIME_NAME_KEY);
-            if (runtimeName == null) {
-                runtimeName = deployment.getLocation();
-                try {
-                    // Strip the query off the location if it is a valid URI
-                    new URI(runtimeName);
-                    int queryIndex = runtimeName.indexOf('?');
-                    if (queryIndex > 0) {
-                        runtimeName = runtimeName.substring(0, queryIndex);
-                    }
-                } catch (URISyntaxException ex) {
-                    // ignore
-                }
-                if (deployment.isBundleUpdate()) {
-                    String suffix = "";
-                    XBundle bundle = deployment.getAttachment(IntegrationConstants.BUNDLE_KEY);
-                    BundleRevisions brevs = bundle.adapt(BundleRevisions.class);
-                    int revid = brevs.getRevisions().size();
-                    int dotindex = runtimeName.length() - 4;
-                    if (dotindex > 0 && runtimeName.charAt(dotindex) == '.') {
-                        suffix = runtimeName.substring(runtimeName.length() - 4);
-                        runtimeName = runtimeName.substring(0, dotindex);
-                    }
-                    runtimeName += "-rev" + revid + suffix;
-                }
-                deployment.putAttachment(RUNTIME_NAME_KEY, runtimeName);
-            }
-            return runtimeName;
+            // Activate the deferred phase, in case of failure the activation goes back to NEVER
+            DeferredPhaseActivation activation = new DeferredPhaseActivation(bundle, depUnit);
+            activation.activate(bundleManager.getServiceContainer(), phaseService);
+            return activation;
         }
 
         @SuppressWarnings("unchecked")
@@ -462,9 +421,9 @@ public final class BundleLifecycleIntegration extends BundleLifecyclePlugin {
                 XBundleRevision brev = bundle.getBundleRevision();
                 Deployment deployment = bundle.adapt(Deployment.class);
 
+                // The current root may not survive the undeploy of the revision
                 try {
-                    InputStream inputStream = deployment.getRoot().getStreamURL().openStream();
-                    rootFile = AbstractVFS.toVirtualFile(inputStream);
+                    rootFile = contentDeployer.getDetachedRoot(deployment.getRoot());
                 } catch (IOException ex) {
                     throw FrameworkMessages.MESSAGES.cannotObtainVirtualFile(ex);
                 }
@@ -486,17 +445,13 @@ public final class BundleLifecycleIntegration extends BundleLifecyclePlugin {
                 putDeployment(runtimeName, deployment);
 
                 try {
-                    InputStream input = deployment.getRoot().openStream();
-                    try {
-                        ServerDeploymentHelper server = new ServerDeploymentHelper(serverDeploymentManager);
-                        server.deploy(runtimeName, input);
-                    } finally {
-                        VFSUtils.safeClose(input);
-                    }
+                    contentDeployer.deploy(runtimeName, deployment);
                 } catch (RuntimeException rte) {
                     throw rte;
                 } catch (Exception ex) {
                     throw MESSAGES.cannotDeployBundleRevision(ex, deployment);
+                } finally {
+                    removeDeployment(runtimeName);
                 }
             }
 
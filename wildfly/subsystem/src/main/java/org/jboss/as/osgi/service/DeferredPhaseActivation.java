@@ -0,0 +1,273 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.osgi.service;
+
+import static org.jboss.as.osgi.OSGiLogger.LOGGER;
+import static org.jboss.as.osgi.OSGiMessages.MESSAGES;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.jboss.as.osgi.OSGiConstants;
+import org.jboss.as.server.deployment.DeploymentUnit;
+import org.jboss.as.server.deployment.DeploymentUtils;
+import org.jboss.as.server.deployment.Phase;
+import org.jboss.msc.service.AbstractServiceListener;
+import org.jboss.msc.service.ServiceController;
+import org.jboss.msc.service.ServiceController.Mode;
+import org.jboss.msc.service.ServiceController.Substate;
+import org.jboss.msc.service.ServiceRegistry;
+import org.jboss.msc.service.StartException;
+import org.jboss.osgi.resolver.XBundle;
+import org.osgi.framework.BundleException;
+
+/**
+ * A handle on the activation of the deferred {@link Phase#FIRST_MODULE_USE} phase of a bundle deployment.
+ *
+ * The activation is driven by service listeners on the remaining deployment phase services. No thread is
+ * parked while the phases come up. In case of failure the deferred phase is deactivated from the listener as well
+ * and the handle completes with the {@link BundleException} that caused the failure.
+ *
+ * @since 17-Oct-2026
+ */
+public final class DeferredPhaseActivation implements Future<XBundle> {
+
+    /** The time in seconds to wait for the deferred phase to come down after a failed activation */
+    static final long DEACTIVATION_TIMEOUT = 30;
+
+    private final XBundle bundle;
+    private final DeploymentUnit depUnit;
+    private final CountDownLatch settledLatch = new CountDownLatch(1);
+    private final CountDownLatch doneLatch = new CountDownLatch(1);
+    private volatile BundleException failure;
+
+    static DeferredPhaseActivation completed(XBundle bundle) {
+        DeferredPhaseActivation activation = new DeferredPhaseActivation(bundle, null);
+        activation.settledLatch.countDown();
+        activation.doneLatch.countDown();
+        return activation;
+    }
+
+    DeferredPhaseActivation(XBundle bundle, DeploymentUnit depUnit) {
+        this.bundle = bundle;
+        this.depUnit = depUnit;
+    }
+
+    void activate(ServiceRegistry serviceRegistry, ServiceController<Phase> phaseService) {
+        phaseService.addListener(new ActivationListener(serviceRegistry, phaseService));
+        phaseService.setMode(Mode.ACTIVE);
+    }
+
+    public XBundle getBundle() {
+        return bundle;
+    }
+
+    /**
+     * Get the cause of a failed activation or null.
+     */
+    public BundleException getFailure() {
+        return failure;
+    }
+
+    /**
+     * Wait for the activation to complete and throw the cause of a failed activation.
+     */
+    public void awaitCompletion() throws BundleException {
+        try {
+            settledLatch.await();
+            if (failure != null) {
+                if (!doneLatch.await(DEACTIVATION_TIMEOUT, TimeUnit.SECONDS)) {
+                    LOGGER.errorf(failure, failure.getMessage());
+                    throw MESSAGES.cannotDeactivateDeferredModulePhase(new TimeoutException(), bundle);
+                }
+                throw failure;
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw MESSAGES.cannotActivateDeferredModulePhase(ex, bundle);
+        }
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        return false;
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return false;
+    }
+
+    @Override
+    public boolean isDone() {
+        return doneLatch.getCount() == 0;
+    }
+
+    @Override
+    public XBundle get() throws InterruptedException, ExecutionException {
+        doneLatch.await();
+        return getResult();
+    }
+
+    @Override
+    public XBundle get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+        if (!doneLatch.await(timeout, unit))
+            throw new TimeoutException();
+        return getResult();
+    }
+
+    private XBundle getResult() throws ExecutionException {
+        if (failure != null)
+            throw new ExecutionException(failure);
+        return bundle;
+    }
+
+    @Override
+    public String toString() {
+        return "DeferredPhaseActivation[" + bundle + ",done=" + isDone() + ",failure=" + failure + "]";
+    }
+
+    /**
+     * Follows the deployment phase services from the deferred phase to the last phase.
+     */
+    private final class ActivationListener extends AbstractServiceListener<Phase> {
+
+        private final ServiceRegistry serviceRegistry;
+        private final ServiceController<Phase> deferredPhaseService;
+        private Phase currentPhase = Phase.FIRST_MODULE_USE;
+        private boolean completed;
+
+        ActivationListener(ServiceRegistry serviceRegistry, ServiceController<Phase> deferredPhaseService) {
+            this.serviceRegistry = serviceRegistry;
+            this.deferredPhaseService = deferredPhaseService;
+        }
+
+        @Override
+        public synchronized void listenerAdded(ServiceController<? extends Phase> controller) {
+            processSubstate(controller, controller.getSubstate());
+        }
+
+        @Override
+        public synchronized void transition(ServiceController<? extends Phase> controller, ServiceController.Transition transition) {
+            processSubstate(controller, transition.getAfter());
+        }
+
+        @Override
+        public synchronized void dependencyFailed(ServiceController<? extends Phase> controller) {
+            failed(controller, null);
+        }
+
+        private void processSubstate(ServiceController<? extends Phase> controller, Substate substate) {
+            if (completed)
+                return;
+
+            switch (substate) {
+                case UP:
+                    if (isLastPhase()) {
+                        controller.removeListener(this);
+                        completed = true;
+                        settledLatch.countDown();
+                        doneLatch.countDown();
+                        break;
+                    }
+                    // A missing phase service means the deployment went away underneath us
+                    ServiceController<Phase> nextPhaseService = getNextPhaseService();
+                    if (nextPhaseService == null) {
+                        failed(controller, null);
+                        break;
+                    }
+                    controller.removeListener(this);
+                    nextPhaseService.addListener(this);
+                    break;
+                case START_FAILED:
+                    failed(controller, controller.getStartException());
+                    break;
+                case PROBLEM:
+                    failed(controller, null);
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        private boolean isLastPhase() {
+            return currentPhase.ordinal() + 1 >= Phase.values().length;
+        }
+
+        @SuppressWarnings("unchecked")
+        private ServiceController<Phase> getNextPhaseService() {
+            currentPhase = Phase.values()[currentPhase.ordinal() + 1];
+            return (ServiceController<Phase>) serviceRegistry.getService(DeploymentUtils.getDeploymentUnitPhaseServiceName(depUnit, currentPhase));
+        }
+
+        private void failed(ServiceController<? extends Phase> controller, StartException startex) {
+            if (completed)
+                return;
+
+            completed = true;
+            controller.removeListener(this);
+
+            // Create the BundleException that the activation completes with
+            if (startex != null && startex.getCause() instanceof BundleException) {
+                failure = (BundleException) startex.getCause();
+            } else {
+                failure = MESSAGES.cannotActivateDeferredModulePhase(startex, bundle);
+            }
+
+            // Deactivate the deferred phase
+            depUnit.putAttachment(OSGiConstants.DEFERRED_ACTIVATION_FAILED, Boolean.TRUE);
+            LOGGER.warnDeactivateDeferredModulePhase(bundle);
+            settledLatch.countDown();
+            deferredPhaseService.addListener(new DeactivationListener());
+            deferredPhaseService.setMode(Mode.NEVER);
+        }
+    }
+
+    /**
+     * Completes the activation once the deferred phase service is down again.
+     */
+    private final class DeactivationListener extends AbstractServiceListener<Phase> {
+
+        @Override
+        public void listenerAdded(ServiceController<? extends Phase> controller) {
+            if (controller.getSubstate() == Substate.DOWN) {
+                deactivated(controller);
+            }
+        }
+
+        @Override
+        public void transition(ServiceController<? extends Phase> controller, ServiceController.Transition transition) {
+            if (transition.getAfter() == Substate.DOWN) {
+                deactivated(controller);
+            }
+        }
+
+        private void deactivated(ServiceController<? extends Phase> controller) {
+            controller.removeListener(this);
+            doneLatch.countDown();
+        }
+    }
+}
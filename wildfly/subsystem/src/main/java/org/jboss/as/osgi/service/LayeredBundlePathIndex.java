@@ -0,0 +1,251 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.osgi.service;
+
+import static org.jboss.as.osgi.OSGiLogger.LOGGER;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import org.jboss.modules.ModuleIdentifier;
+
+/**
+ * An in-memory index of the layered bundles hierarchy.
+ *
+ * The bundle path, including layers and add-ons, is scanned once and every directory that contains
+ * a single jar is mapped to that jar. Lookups are then served from memory. The modification times of all
+ * scanned directories and the {@code layers.conf} files are recorded, so that the index can be rebuilt when
+ * the layer tree changes. The layers and add-ons below a bundle root are scanned as locations of their own,
+ * they are not indexed again as part of the root.
+ *
+ * @since 17-Oct-2026
+ */
+public final class LayeredBundlePathIndex {
+
+    /** The minimum interval between two validations of the index */
+    static final long VALIDATION_INTERVAL = 1000;
+
+    private final File[] bundleRoots;
+    private volatile Snapshot snapshot;
+
+    public LayeredBundlePathIndex(File... bundleRoots) {
+        this.bundleRoots = bundleRoots;
+    }
+
+    /**
+     * Get the precedence-ordered list of locations this index was built from.
+     */
+    public List<File> getBundlesPath() {
+        return getSnapshot().bundlesPath;
+    }
+
+    /**
+     * Get the single jar that corresponds to the given identifier or null.
+     *
+     * A hit whose jar no longer exists rebuilds the index. Otherwise, the directories that hold or would hold
+     * the entry are validated at most once per {@link #VALIDATION_INTERVAL}.
+     */
+    public File getEntry(ModuleIdentifier moduleId) {
+        String identifierPath = moduleId.getName().replace('.', '/') + "/" + moduleId.getSlot();
+        Snapshot current = getSnapshot();
+        File entryFile = current.entries.get(identifierPath);
+        if (entryFile != null && !entryFile.isFile()) {
+            LOGGER.debugf("Bundle entry removed: %s", entryFile);
+            rescan(current);
+            entryFile = getSnapshot().entries.get(identifierPath);
+        } else if (System.currentTimeMillis() - current.validated > VALIDATION_INTERVAL) {
+            if (validate(identifierPath)) {
+                entryFile = getSnapshot().entries.get(identifierPath);
+            }
+        }
+        return entryFile;
+    }
+
+    /**
+     * Discard the current index. It is rebuilt on next access.
+     */
+    public synchronized void invalidate() {
+        snapshot = null;
+    }
+
+    /**
+     * Check the recorded modification times and rebuild the index if anything has changed.
+     *
+     * @return true if the index was rebuilt
+     */
+    synchronized boolean validate() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            snapshot = scan();
+            return true;
+        }
+        for (Entry<File, Long> entry : current.modified.entrySet()) {
+            if (entry.getKey().lastModified() != entry.getValue()) {
+                LOGGER.debugf("Bundles hierarchy modified: %s", entry.getKey());
+                snapshot = scan();
+                return true;
+            }
+        }
+        current.validated = System.currentTimeMillis();
+        return false;
+    }
+
+    /**
+     * Check the {@code layers.conf} files and, in every location, the closest scanned directory of the given path.
+     * Rebuild the index if anything has changed.
+     *
+     * @return true if the index was rebuilt
+     */
+    synchronized boolean validate(String identifierPath) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            snapshot = scan();
+            return true;
+        }
+        for (File root : bundleRoots) {
+            if (isModified(current, new File(root, "layers.conf"))) {
+                snapshot = scan();
+                return true;
+            }
+        }
+        for (File basePath : current.bundlesPath) {
+            File dir = new File(basePath, identifierPath);
+            while (!current.modified.containsKey(dir) && !dir.equals(basePath)) {
+                dir = dir.getParentFile();
+            }
+            if (isModified(current, dir)) {
+                snapshot = scan();
+                return true;
+            }
+        }
+        current.validated = System.currentTimeMillis();
+        return false;
+    }
+
+    // Rebuild the index, unless another thread already replaced the given snapshot
+    private synchronized void rescan(Snapshot current) {
+        if (snapshot == current || snapshot == null) {
+            snapshot = scan();
+        }
+    }
+
+    private boolean isModified(Snapshot current, File file) {
+        Long lastModified = current.modified.get(file);
+        if (lastModified != null && file.lastModified() != lastModified) {
+            LOGGER.debugf("Bundles hierarchy modified: %s", file);
+            return true;
+        }
+        return false;
+    }
+
+    private Snapshot getSnapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                current = snapshot;
+                if (current == null) {
+                    snapshot = current = scan();
+                }
+            }
+        }
+        return current;
+    }
+
+    private Snapshot scan() {
+        long startTime = System.currentTimeMillis();
+        Map<File, Long> modified = new HashMap<File, Long>();
+        for (File root : bundleRoots) {
+            File layersConf = new File(root, "layers.conf");
+            modified.put(layersConf, layersConf.lastModified());
+        }
+
+        List<File> bundlesPath = LayeredBundlePathFactory.resolveLayeredBundlePath(bundleRoots);
+        Map<String, File> entries = new LinkedHashMap<String, File>();
+        // The layers and add-ons are locations of their own
+        Set<File> excluded = new HashSet<File>();
+        for (File root : bundleRoots) {
+            excluded.add(new File(root, "system" + File.separator + "layers"));
+            excluded.add(new File(root, "system" + File.separator + "add-ons"));
+        }
+
+        for (File basePath : bundlesPath) {
+            Map<String, File> layerEntries = new HashMap<String, File>();
+            scanDirectory(basePath, "", layerEntries, modified, excluded);
+            // Entries from a layer with higher precedence win
+            for (Entry<String, File> entry : layerEntries.entrySet()) {
+                if (!entries.containsKey(entry.getKey())) {
+                    entries.put(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+        LOGGER.debugf("Indexed %d bundles from %d locations in %dms", entries.size(), bundlesPath.size(), System.currentTimeMillis() - startTime);
+        return new Snapshot(Collections.unmodifiableList(bundlesPath), entries, modified);
+    }
+
+    private void scanDirectory(File dir, String relativePath, Map<String, File> entries, Map<File, Long> modified, Set<File> excluded) {
+        modified.put(dir, dir.lastModified());
+        File[] children = dir.listFiles();
+        if (children == null)
+            return;
+
+        File jarFile = null;
+        int jarCount = 0;
+        for (File child : children) {
+            String name = child.getName();
+            if (name.endsWith(".jar")) {
+                jarFile = child;
+                jarCount++;
+            }
+            if (child.isDirectory() && !excluded.contains(child)) {
+                String childPath = relativePath.isEmpty() ? name : relativePath + "/" + name;
+                scanDirectory(child, childPath, entries, modified, excluded);
+            }
+        }
+        if (jarCount == 1 && !relativePath.isEmpty()) {
+            entries.put(relativePath, jarFile);
+        } else if (jarCount > 1) {
+            LOGGER.tracef("Multiple jars in: %s", dir);
+        }
+    }
+
+    private static class Snapshot {
+        private final List<File> bundlesPath;
+        private final Map<String, File> entries;
+        private final Map<File, Long> modified;
+        private volatile long validated;
+
+        Snapshot(List<File> bundlesPath, Map<String, File> entries, Map<File, Long> modified) {
+            this.bundlesPath = bundlesPath;
+            this.entries = entries;
+            this.modified = modified;
+            this.validated = System.currentTimeMillis();
+        }
+    }
+}
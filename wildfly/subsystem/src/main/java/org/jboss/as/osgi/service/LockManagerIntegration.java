@@ -21,7 +21,9 @@
  */
 package org.jboss.as.osgi.service;
 
-import java.util.Stack;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 
 import org.jboss.msc.service.StartContext;
@@ -39,133 +41,179 @@ import org.jboss.osgi.spi.AttachmentKey;
 public final class LockManagerIntegration extends LockManagerPlugin {
 
     @SuppressWarnings("rawtypes")
-    private static AttachmentKey<Stack> LOCK_CONTEXT_KEY = AttachmentKey.create(Stack.class);
+    private static AttachmentKey<ConcurrentLinkedDeque> LOCK_CONTEXT_KEY = AttachmentKey.create(ConcurrentLinkedDeque.class);
+
+    // The number of monitors that guard the creation of the attached lock context stacks
+    private static final int LOCK_STRIPES = 32;
 
     @Override
     protected LockManager createServiceValue(StartContext startContext) {
-        final LockManager delegate = super.createServiceValue(startContext);
-        return new LockManager() {
+        return new LockManagerImpl(super.createServiceValue(startContext));
+    }
 
-            @Override
-            public <T extends LockableItem> T getItemForType(Class<T> type) {
-                return delegate.getItemForType(type);
-            }
+    public static final class LockManagerImpl implements LockManager {
 
-            @Override
-            public LockContext getCurrentLockContext() {
-                return delegate.getCurrentLockContext();
-            }
+        private final LockManager delegate;
+        private final Object[] stripes = new Object[LOCK_STRIPES];
+        private final ConcurrentMap<LockContext, Long> lockTimes = new ConcurrentHashMap<LockContext, Long>();
+        private final LockManagerStatistics statistics = new LockManagerStatistics();
 
-            @Override
-            public LockContext lockItems(Method method, LockableItem... items) {
-                LockContext context = null;
-                if (!skipLocking(method, items)) {
-                    context = delegate.lockItems(method, items);
-                    pushAttachedLockContext(context, items);
-                }
-                return context;
+        LockManagerImpl(LockManager delegate) {
+            this.delegate = delegate;
+            for (int i = 0; i < stripes.length; i++) {
+                stripes[i] = new Object();
             }
-
-            @Override
-            public LockContext lockItems(Method method, long timeout, TimeUnit unit, LockableItem... items) {
-                LockContext context = null;
-                if (!skipLocking(method, items)) {
-                    context = delegate.lockItems(method, timeout, unit, items);
-                    pushAttachedLockContext(context, items);
-                }
-                return context;
+        }
+
+        /**
+         * Get the wait and hold time statistics of this lock manager.
+         */
+        public LockManagerStatistics getStatistics() {
+            return statistics;
+        }
+
+        @Override
+        public <T extends LockableItem> T getItemForType(Class<T> type) {
+            return delegate.getItemForType(type);
+        }
+
+        @Override
+        public LockContext getCurrentLockContext() {
+            return delegate.getCurrentLockContext();
+        }
+
+        @Override
+        public LockContext lockItems(Method method, LockableItem... items) {
+            LockContext context = null;
+            if (!skipLocking(method, items)) {
+                long startTime = System.nanoTime();
+                context = delegate.lockItems(method, items);
+                lockAcquired(method, context, startTime);
+                pushAttachedLockContext(context, items);
+            }
+            return context;
+        }
+
+        @Override
+        public LockContext lockItems(Method method, long timeout, TimeUnit unit, LockableItem... items) {
+            LockContext context = null;
+            if (!skipLocking(method, items)) {
+                long startTime = System.nanoTime();
+                context = delegate.lockItems(method, timeout, unit, items);
+                lockAcquired(method, context, startTime);
+                pushAttachedLockContext(context, items);
+            }
+            return context;
+        }
+
+        @Override
+        public void unlockItems(LockContext context) {
+            popAttachedLockContext(context);
+            lockReleased(context);
+            delegate.unlockItems(context);
+        }
+
+        private void lockAcquired(Method method, LockContext context, long startTime) {
+            long lockTime = System.nanoTime();
+            statistics.recordWait(method, lockTime - startTime);
+            if (context != null) {
+                lockTimes.putIfAbsent(context, lockTime);
             }
+        }
 
-            @Override
-            public void unlockItems(LockContext context) {
-                popAttachedLockContext(context);
-                delegate.unlockItems(context);
+        private void lockReleased(LockContext context) {
+            Long lockTime = context != null ? lockTimes.remove(context) : null;
+            if (lockTime != null) {
+                statistics.recordHold(context.getMethod(), System.nanoTime() - lockTime);
             }
+        }
 
-            @SuppressWarnings("unchecked")
-            private synchronized boolean skipLocking(Method method, LockableItem... items) {
+        @SuppressWarnings("unchecked")
+        private boolean skipLocking(Method method, LockableItem... items) {
 
-                // Another thread might qualify to skip locking
+            // Another thread might qualify to skip locking
 
-                // #1 There must be no current context associated with the thread
-                if (getCurrentLockContext() != null)
-                    return false;
+            // #1 There must be no current context associated with the thread
+            if (getCurrentLockContext() != null)
+                return false;
 
-                LockContext context = null;
+            LockContext context = null;
 
-                // #2 All items must have have same context attached
-                for (LockableItem item : items) {
-                    if (item instanceof Attachable) {
-                        Attachable attachableItem = (Attachable) item;
-                        Stack<LockContext> stack = attachableItem.getAttachment(LOCK_CONTEXT_KEY);
-                        LockContext aux = stack != null && !stack.isEmpty() ? stack.peek() : null;
-                        if (context == null && aux != null) {
-                            context = aux;
-                        }
-                        if (context != aux) {
-                            return false;
-                        }
+            // #2 All items must have have same context attached
+            for (LockableItem item : items) {
+                if (item instanceof Attachable) {
+                    Attachable attachableItem = (Attachable) item;
+                    ConcurrentLinkedDeque<LockContext> stack = attachableItem.getAttachment(LOCK_CONTEXT_KEY);
+                    LockContext aux = stack != null ? stack.peekFirst() : null;
+                    if (context == null && aux != null) {
+                        context = aux;
+                    }
+                    if (context != aux) {
+                        return false;
                     }
                 }
+            }
 
-                // #3 There must be an attached context
-                if (context == null)
-                    return false;
+            // #3 There must be an attached context
+            if (context == null)
+                return false;
 
-                // Skip the lock when UPDATE started another thread
-                if (context.getMethod() == Method.UPDATE) {
-                    if (method == Method.STOP || method == Method.INSTALL || method == Method.START) {
-                        return true;
-                    }
+            // Skip the lock when UPDATE started another thread
+            if (context.getMethod() == Method.UPDATE) {
+                if (method == Method.STOP || method == Method.INSTALL || method == Method.START) {
+                    return true;
                 }
+            }
 
-                // Skip the lock when REFRESH started another thread
-                if (context.getMethod() == Method.REFRESH) {
-                    if (method == Method.STOP || method == Method.UNINSTALL || method == Method.INSTALL || method == Method.START) {
-                        return true;
-                    }
+            // Skip the lock when REFRESH started another thread
+            if (context.getMethod() == Method.REFRESH) {
+                if (method == Method.STOP || method == Method.UNINSTALL || method == Method.INSTALL || method == Method.START) {
+                    return true;
                 }
+            }
 
-                // Skip the lock when UNINSTALL started another thread
-                if (context.getMethod() == Method.UNINSTALL) {
-                    if (method == Method.STOP || method == Method.UNINSTALL) {
-                        return true;
-                    }
+            // Skip the lock when UNINSTALL started another thread
+            if (context.getMethod() == Method.UNINSTALL) {
+                if (method == Method.STOP || method == Method.UNINSTALL) {
+                    return true;
                 }
+            }
 
-                return false;
+            return false;
+        }
+
+        private void pushAttachedLockContext(LockContext context, LockableItem... items) {
+            for (LockableItem item : items) {
+                if (item instanceof Attachable) {
+                    getAttachedLockContexts((Attachable) item).push(context);
+                }
             }
+        }
 
-            @SuppressWarnings("unchecked")
-            private synchronized void pushAttachedLockContext(LockContext context, LockableItem... items) {
-                for (LockableItem item : items) {
+        private void popAttachedLockContext(LockContext context) {
+            if (context != null) {
+                for (LockableItem item : context.getItems()) {
                     if (item instanceof Attachable) {
-                        Attachable attachableItem = (Attachable) item;
-                        Stack<LockContext> stack = attachableItem.getAttachment(LOCK_CONTEXT_KEY);
-                        if (stack == null) {
-                            stack = new Stack<LockContext>();
-                            attachableItem.putAttachment(LOCK_CONTEXT_KEY, stack);
-                        }
-                        stack.push(context);
+                        getAttachedLockContexts((Attachable) item).removeFirstOccurrence(context);
                     }
                 }
             }
-
-            private synchronized void popAttachedLockContext(LockContext context) {
-                if (context != null) {
-                    for (LockableItem item : context.getItems()) {
-                        if (item instanceof Attachable) {
-                            Attachable attachableItem = (Attachable) item;
-                            Stack<?> stack = attachableItem.getAttachment(LOCK_CONTEXT_KEY);
-                            if (stack.size() == 1) {
-                                attachableItem.removeAttachment(LOCK_CONTEXT_KEY);
-                            } else {
-                                stack.pop();
-                            }
-                        }
+        }
+
+        // The stack stays attached once created, so that it never has to be replaced under a concurrent push
+        @SuppressWarnings("unchecked")
+        private ConcurrentLinkedDeque<LockContext> getAttachedLockContexts(Attachable item) {
+            ConcurrentLinkedDeque<LockContext> stack = item.getAttachment(LOCK_CONTEXT_KEY);
+            if (stack == null) {
+                synchronized (stripes[(System.identityHashCode(item) & 0x7fffffff) % stripes.length]) {
+                    stack = item.getAttachment(LOCK_CONTEXT_KEY);
+                    if (stack == null) {
+                        stack = new ConcurrentLinkedDeque<LockContext>();
+                        item.putAttachment(LOCK_CONTEXT_KEY, stack);
                     }
                 }
             }
-        };
+            return stack;
+        }
     }
 }
@@ -0,0 +1,164 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.osgi.service;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jboss.osgi.framework.spi.LockManager.Method;
+
+/**
+ * Collects the wait and hold times of the locks that are obtained through the {@link LockManagerIntegration}.
+ *
+ * The statistics are kept per {@link Method}. An acquisition counts as contended if the thread had to wait
+ * for longer than the {@link #CONTENTION_THRESHOLD}.
+ *
+ * @since 17-Oct-2026
+ */
+public final class LockManagerStatistics {
+
+    /** The wait time in nanoseconds above which a lock acquisition counts as contended */
+    static final long CONTENTION_THRESHOLD = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final Map<Method, MethodStatistics> statistics = new EnumMap<Method, MethodStatistics>(Method.class);
+
+    LockManagerStatistics() {
+        for (Method method : Method.values()) {
+            statistics.put(method, new MethodStatistics(method));
+        }
+    }
+
+    public MethodStatistics getStatistics(Method method) {
+        return statistics.get(method);
+    }
+
+    /**
+     * Reset the statistics of all methods.
+     */
+    public void reset() {
+        for (MethodStatistics stats : statistics.values()) {
+            stats.reset();
+        }
+    }
+
+    void recordWait(Method method, long waitNanos) {
+        statistics.get(method).recordWait(waitNanos);
+    }
+
+    void recordHold(Method method, long holdNanos) {
+        statistics.get(method).recordHold(holdNanos);
+    }
+
+    public static final class MethodStatistics {
+
+        private final Method method;
+        private final AtomicLong lockCount = new AtomicLong();
+        private final AtomicLong contendedCount = new AtomicLong();
+        private final AtomicLong totalWaitTime = new AtomicLong();
+        private final AtomicLong maxWaitTime = new AtomicLong();
+        private final AtomicLong totalHoldTime = new AtomicLong();
+        private final AtomicLong maxHoldTime = new AtomicLong();
+
+        MethodStatistics(Method method) {
+            this.method = method;
+        }
+
+        public Method getMethod() {
+            return method;
+        }
+
+        /**
+         * Get the number of lock acquisitions.
+         */
+        public long getLockCount() {
+            return lockCount.get();
+        }
+
+        /**
+         * Get the number of lock acquisitions that had to wait for another lock holder.
+         */
+        public long getContendedCount() {
+            return contendedCount.get();
+        }
+
+        /**
+         * Get the accumulated wait time in nanoseconds.
+         */
+        public long getTotalWaitTime() {
+            return totalWaitTime.get();
+        }
+
+        /**
+         * Get the maximum wait time in nanoseconds.
+         */
+        public long getMaxWaitTime() {
+            return maxWaitTime.get();
+        }
+
+        /**
+         * Get the accumulated hold time in nanoseconds.
+         */
+        public long getTotalHoldTime() {
+            return totalHoldTime.get();
+        }
+
+        /**
+         * Get the maximum hold time in nanoseconds.
+         */
+        public long getMaxHoldTime() {
+            return maxHoldTime.get();
+        }
+
+        void recordWait(long waitNanos) {
+            lockCount.incrementAndGet();
+            if (waitNanos > CONTENTION_THRESHOLD) {
+                contendedCount.incrementAndGet();
+            }
+            totalWaitTime.addAndGet(waitNanos);
+            updateMax(maxWaitTime, waitNanos);
+        }
+
+        void recordHold(long holdNanos) {
+            totalHoldTime.addAndGet(holdNanos);
+            updateMax(maxHoldTime, holdNanos);
+        }
+
+        void reset() {
+            lockCount.set(0);
+            contendedCount.set(0);
+            totalWaitTime.set(0);
+            maxWaitTime.set(0);
+            totalHoldTime.set(0);
+            maxHoldTime.set(0);
+        }
+
+        private static void updateMax(AtomicLong max, long value) {
+            long current = max.get();
+            while (value > current && !max.compareAndSet(current, value)) {
+                current = max.get();
+            }
+        }
+    }
+}
@@ -33,6 +33,7 @@ import java.net.URL;
 import java.nio.file.FileSystems;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
@@ -60,12 +61,25 @@ import org.osgi.resource.Requirement;
  */
 public final class ModuleIdentityRepositoryIntegration extends ModuleIdentityRepository {
 
-    private final List<File> bundlesPath;
+    /** The maximum number of entries in the OSGi metadata cache */
+    static final int METADATA_CACHE_SIZE = 2000;
+
+    private final LayeredBundlePathIndex bundlesIndex;
     private final File modulesDir;
+    private final List<File> modulesPath;
+    private final OSGiMetaDataCache metadataCache;
 
     public ModuleIdentityRepositoryIntegration(ServerEnvironment serverEnvironment) {
+        this(serverEnvironment.getBundlesDir(), serverEnvironment.getServerDataDir());
+    }
+
+    /**
+     * Create the repository without a {@link ServerEnvironment}.
+     *
+     * This is a package-private seam for the {@code BundleHierarchyBenchmark} in the benchmarks module.
+     */
+    ModuleIdentityRepositoryIntegration(File bundlesDir, File serverDataDir) {
         super(Module.getCallerModuleLoader());
-        File bundlesDir = serverEnvironment.getBundlesDir();
         if (bundlesDir.isDirectory() == false)
             throw MESSAGES.illegalStateArtifactBaseLocation(bundlesDir);
 
@@ -73,7 +87,11 @@ public final class ModuleIdentityRepositoryIntegration extends ModuleIdentityRep
         if (modulesDir.isDirectory() == false)
             throw MESSAGES.illegalStateArtifactBaseLocation(modulesDir);
 
-        bundlesPath = LayeredBundlePathFactory.resolveLayeredBundlePath(serverEnvironment);
+        bundlesIndex = new LayeredBundlePathIndex(bundlesDir);
+        modulesPath = LayeredBundlePathFactory.resolveLayeredBundlePath(modulesDir);
+
+        File cacheDir = new File(serverDataDir, "osgi-metadata");
+        metadataCache = new OSGiMetaDataCache(cacheDir, METADATA_CACHE_SIZE);
     }
 
     @Override
@@ -91,7 +109,7 @@ public final class ModuleIdentityRepositoryIntegration extends ModuleIdentityRep
         try {
             // Try to resolve the moduleId in the bundles hierarchy
             ModuleIdentifier moduleId = ModuleIdentifier.fromString(idspec);
-            File contentFile = getRepositoryEntry(bundlesPath, moduleId);
+            File contentFile = getRepositoryEntry(moduleId);
             if (contentFile != null) {
                 XResourceBuilder<XResource> builder;
                 URL contentURL = contentFile.toURI().toURL();
@@ -116,6 +134,20 @@ public final class ModuleIdentityRepositoryIntegration extends ModuleIdentityRep
         return Collections.unmodifiableList(result);
     }
 
+    /**
+     * Get file for the single jar in the layered bundles hierarchy that corresponds to the given identifier
+     */
+    public File getRepositoryEntry(ModuleIdentifier moduleId) {
+        return bundlesIndex.getEntry(moduleId);
+    }
+
+    /**
+     * Get the index of the layered bundles hierarchy
+     */
+    public LayeredBundlePathIndex getBundlesIndex() {
+        return bundlesIndex;
+    }
+
     /**
      * Get file for the singe jar that corresponds to the given identifier
      */
@@ -155,6 +187,15 @@ public final class ModuleIdentityRepositoryIntegration extends ModuleIdentityRep
             }
         }
 
+        // Use the metadata that was cached for unchanged module content
+        String stamp = null;
+        if (result == null && getRepositoryEntry(moduleId) == null) {
+            stamp = getModuleStamp(moduleId);
+            if (stamp != null && (result = metadataCache.get(moduleId, stamp)) != null) {
+                return result;
+            }
+        }
+
         // Use the original metadata from the manifest
         if (result == null) {
             result = getOSGiMetaDataFromManifest(resource);
@@ -166,9 +207,35 @@ public final class ModuleIdentityRepositoryIntegration extends ModuleIdentityRep
             result = getOSGiMetaDataFromModule(module);
         }
 
+        if (result != null && stamp != null) {
+            metadataCache.put(moduleId, stamp, result);
+        }
+
         return result;
     }
 
+    /**
+     * Get a stamp for the content of the module definition in the layered modules hierarchy or null if there is none.
+     * The stamp is derived from the names, sizes and modification times of the files in the module directory.
+     */
+    private String getModuleStamp(ModuleIdentifier moduleId) {
+        String identifierPath = getModuleIdAsPath(moduleId);
+        for (File basePath : modulesPath) {
+            File moduleDir = new File(basePath, identifierPath);
+            File[] files = moduleDir.listFiles();
+            if (files == null || !new File(moduleDir, "module.xml").isFile())
+                continue;
+
+            Arrays.sort(files);
+            StringBuilder builder = new StringBuilder(moduleDir.getAbsolutePath());
+            for (File file : files) {
+                builder.append('|').append(file.getName()).append(':').append(file.length()).append(':').append(file.lastModified());
+            }
+            return builder.toString();
+        }
+        return null;
+    }
+
     private File getSingleJarEntry(File baseDir, String identifierPath) throws IOException {
 
         File entryDir = FileSystems.getDefault().getPath(baseDir.getAbsolutePath(), identifierPath).toFile();
@@ -0,0 +1,190 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.osgi.service;
+
+import static org.jboss.as.osgi.OSGiLogger.LOGGER;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Dictionary;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import org.jboss.modules.ModuleIdentifier;
+import org.jboss.osgi.metadata.OSGiMetaData;
+import org.jboss.osgi.metadata.OSGiMetaDataBuilder;
+
+/**
+ * A persistent cache of the {@link OSGiMetaData} that is generated for module resources.
+ *
+ * Every entry is stored as a properties file in the cache directory, together with a stamp that
+ * identifies the module content it was generated from. An entry is only returned if the stamp still matches.
+ * The number of entries is bounded and the least recently used entries are evicted.
+ *
+ * @since 17-Oct-2026
+ */
+final class OSGiMetaDataCache {
+
+    static final String PROPERTY_IDENTIFIER = "jbosgi.metadata.cache.identifier";
+    static final String PROPERTY_STAMP = "jbosgi.metadata.cache.stamp";
+
+    private final File cacheDir;
+    private final int maxEntries;
+    private final Map<ModuleIdentifier, Properties> entries;
+
+    OSGiMetaDataCache(File cacheDir, final int maxEntries) {
+        this.cacheDir = cacheDir;
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<ModuleIdentifier, Properties>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ModuleIdentifier, Properties> eldest) {
+                if (size() > maxEntries) {
+                    getCacheFile(eldest.getKey()).delete();
+                    return true;
+                }
+                return false;
+            }
+        };
+        evictPersistentEntries();
+    }
+
+    /**
+     * Get the cached metadata for the given module or null if there is no entry with the given stamp.
+     */
+    synchronized OSGiMetaData get(ModuleIdentifier moduleId, String stamp) {
+        Properties props = entries.get(moduleId);
+        if (props == null) {
+            props = loadEntry(moduleId);
+            if (props == null)
+                return null;
+            entries.put(moduleId, props);
+
+            // Keep the persistent LRU order across restarts, hits in memory are ordered by the map
+            getCacheFile(moduleId).setLastModified(System.currentTimeMillis());
+        }
+
+        if (!stamp.equals(props.getProperty(PROPERTY_STAMP))) {
+            LOGGER.tracef("Stale OSGi metadata cache entry: %s", moduleId);
+            remove(moduleId);
+            return null;
+        }
+
+        Properties headers = new Properties();
+        headers.putAll(props);
+        headers.remove(PROPERTY_IDENTIFIER);
+        headers.remove(PROPERTY_STAMP);
+        return OSGiMetaDataBuilder.load(headers);
+    }
+
+    /**
+     * Store the given metadata for the module content identified by the given stamp.
+     */
+    synchronized void put(ModuleIdentifier moduleId, String stamp, OSGiMetaData metadata) {
+        Properties props = new Properties();
+        Dictionary<String, String> headers = metadata.getHeaders();
+        Enumeration<String> keys = headers.keys();
+        while (keys.hasMoreElements()) {
+            String key = keys.nextElement();
+            props.setProperty(key, headers.get(key));
+        }
+        props.setProperty(PROPERTY_IDENTIFIER, moduleId.toString());
+        props.setProperty(PROPERTY_STAMP, stamp);
+
+        if (!cacheDir.isDirectory() && !cacheDir.mkdirs()) {
+            LOGGER.debugf("Cannot create OSGi metadata cache: %s", cacheDir);
+            return;
+        }
+        File cacheFile = getCacheFile(moduleId);
+        try {
+            FileOutputStream output = new FileOutputStream(cacheFile);
+            try {
+                props.store(output, null);
+            } finally {
+                output.close();
+            }
+            entries.put(moduleId, props);
+        } catch (IOException ex) {
+            LOGGER.debugf(ex, "Cannot store OSGi metadata cache entry: %s", cacheFile);
+            cacheFile.delete();
+        }
+    }
+
+    synchronized void remove(ModuleIdentifier moduleId) {
+        entries.remove(moduleId);
+        getCacheFile(moduleId).delete();
+    }
+
+    private Properties loadEntry(ModuleIdentifier moduleId) {
+        File cacheFile = getCacheFile(moduleId);
+        if (!cacheFile.isFile())
+            return null;
+
+        Properties props = new Properties();
+        try {
+            FileInputStream input = new FileInputStream(cacheFile);
+            try {
+                props.load(input);
+            } finally {
+                input.close();
+            }
+        } catch (IOException ex) {
+            LOGGER.debugf(ex, "Cannot load OSGi metadata cache entry: %s", cacheFile);
+            return null;
+        }
+
+        // Guard against file name collisions
+        if (!moduleId.toString().equals(props.getProperty(PROPERTY_IDENTIFIER)))
+            return null;
+
+        return props;
+    }
+
+    private void evictPersistentEntries() {
+        File[] files = cacheDir.listFiles();
+        if (files == null || files.length <= maxEntries)
+            return;
+
+        Arrays.sort(files, new Comparator<File>() {
+            @Override
+            public int compare(File f1, File f2) {
+                return Long.compare(f2.lastModified(), f1.lastModified());
+            }
+        });
+        for (int i = maxEntries; i < files.length; i++) {
+            files[i].delete();
+        }
+    }
+
+    File getCacheFile(ModuleIdentifier moduleId) {
+        String name = moduleId.toString().replaceAll("[^A-Za-z0-9._-]", "_");
+        return new File(cacheDir, name + ".properties");
+    }
+}
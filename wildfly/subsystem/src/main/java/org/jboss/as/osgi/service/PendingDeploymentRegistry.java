@@ -0,0 +1,141 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.osgi.service;
+
+import static org.jboss.as.osgi.OSGiLogger.LOGGER;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jboss.osgi.deployment.deployer.Deployment;
+
+/**
+ * A registry of the bundle {@link Deployment}s that have been handed to the deployment scanner
+ * and are not yet picked up by the deployment unit processors.
+ *
+ * Entries are keyed by the runtime name of the deployment. Lookups do not lock. The thread that registers an entry
+ * deploys the content synchronously and removes the entry when the deploy returns. An entry is only ever left
+ * behind if that thread terminates before it could remove it. Such entries expire after a timeout and are purged
+ * on subsequent registrations. An entry is never purged while its deploy is still running.
+ *
+ * @since 17-Oct-2026
+ */
+public final class PendingDeploymentRegistry {
+
+    /** The default time in milliseconds after which an unclaimed deployment is purged */
+    static final long DEFAULT_TIMEOUT = TimeUnit.MINUTES.toMillis(10);
+
+    private final ConcurrentMap<String, PendingDeployment> deployments = new ConcurrentHashMap<String, PendingDeployment>();
+    private final AtomicLong lastPurge = new AtomicLong();
+    private volatile long timeout = DEFAULT_TIMEOUT;
+
+    /**
+     * Get the pending deployment for the given runtime name or null.
+     */
+    public Deployment getDeployment(String runtimeName) {
+        PendingDeployment pending = deployments.get(runtimeName);
+        return pending != null ? pending.deployment : null;
+    }
+
+    /**
+     * Remove the pending deployment for the given runtime name.
+     *
+     * @return the removed deployment or null
+     */
+    public Deployment removeDeployment(String runtimeName) {
+        PendingDeployment pending = deployments.remove(runtimeName);
+        return pending != null ? pending.deployment : null;
+    }
+
+    /**
+     * Register a pending deployment with the given runtime name. The calling thread is expected to deploy it
+     * and to remove the entry when the deploy returns.
+     */
+    public void putDeployment(String runtimeName, Deployment deployment) {
+        long now = System.currentTimeMillis();
+        deployments.put(runtimeName, new PendingDeployment(deployment, now, Thread.currentThread()));
+        purgeExpired(now);
+    }
+
+    /**
+     * Get the number of pending deployments, not counting expired entries that are not yet purged.
+     */
+    public int getPendingCount() {
+        long now = System.currentTimeMillis();
+        int count = 0;
+        for (PendingDeployment pending : deployments.values()) {
+            if (!isExpired(pending, now)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    long getTimeout() {
+        return timeout;
+    }
+
+    void setTimeout(long timeout) {
+        this.timeout = timeout;
+    }
+
+    /**
+     * Remove the entries that are older than the timeout. A purge is done at most once per timeout interval,
+     * by the thread that wins the update of the purge time.
+     */
+    void purgeExpired(long now) {
+        long last = lastPurge.get();
+        if (now - last < timeout || !lastPurge.compareAndSet(last, now))
+            return;
+
+        Iterator<Map.Entry<String, PendingDeployment>> iterator = deployments.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, PendingDeployment> entry = iterator.next();
+            PendingDeployment pending = entry.getValue();
+            if (isExpired(pending, now) && deployments.remove(entry.getKey(), pending)) {
+                LOGGER.debugf("Purge unclaimed deployment: %s", pending.deployment);
+            }
+        }
+    }
+
+    // An entry whose deploying thread is alive may still be in use by the deployment unit processors
+    private boolean isExpired(PendingDeployment pending, long now) {
+        return now - pending.timestamp >= timeout && !pending.deployer.isAlive();
+    }
+
+    private static final class PendingDeployment {
+        private final Deployment deployment;
+        private final long timestamp;
+        private final Thread deployer;
+
+        PendingDeployment(Deployment deployment, long timestamp, Thread deployer) {
+            this.deployment = deployment;
+            this.timestamp = timestamp;
+            this.deployer = deployer;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.osgi.service;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The request statistics of the servlets that are registered with the OSGi HttpService.
+ *
+ * The HttpService registers an {@link AliasStatistics} for every alias and records every request into it.
+ * Statistics by owning bundle are aggregated when they are read.
+ *
+ * @since 17-Oct-2026
+ */
+public final class ServletStatistics {
+
+    private static final ServletStatistics INSTANCE = new ServletStatistics();
+
+    private final ConcurrentMap<String, AliasStatistics> aliases = new ConcurrentHashMap<String, AliasStatistics>();
+
+    public static ServletStatistics getInstance() {
+        return INSTANCE;
+    }
+
+    ServletStatistics() {
+    }
+
+    public AliasStatistics register(String alias, String bundle) {
+        AliasStatistics stats = new AliasStatistics(alias, bundle);
+        aliases.put(alias, stats);
+        return stats;
+    }
+
+    public void unregister(AliasStatistics stats) {
+        aliases.remove(stats.getAlias(), stats);
+    }
+
+    public Collection<AliasStatistics> getAliasStatistics() {
+        return Collections.unmodifiableCollection(aliases.values());
+    }
+
+    public static final class AliasStatistics {
+        private final String alias;
+        private final String bundle;
+        private final AtomicLong requestCount = new AtomicLong();
+        private final AtomicLong errorCount = new AtomicLong();
+        private final AtomicLong totalTime = new AtomicLong();
+        private final AtomicLong maxTime = new AtomicLong();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final LatencyHistogram histogram = new LatencyHistogram();
+
+        AliasStatistics(String alias, String bundle) {
+            this.alias = alias;
+            this.bundle = bundle;
+        }
+
+        public String getAlias() {
+            return alias;
+        }
+
+        public String getBundle() {
+            return bundle;
+        }
+
+        public void requestStarted() {
+            inFlight.incrementAndGet();
+        }
+
+        /**
+         * Record a completed request with the given duration in nanoseconds.
+         */
+        public void requestCompleted(long duration, boolean error) {
+            inFlight.decrementAndGet();
+            requestCount.incrementAndGet();
+            if (error) {
+                errorCount.incrementAndGet();
+            }
+            totalTime.addAndGet(duration);
+            long max = maxTime.get();
+            while (duration > max && !maxTime.compareAndSet(max, duration)) {
+                max = maxTime.get();
+            }
+            histogram.record(duration);
+        }
+
+        public long getRequestCount() {
+            return requestCount.get();
+        }
+
+        public long getErrorCount() {
+            return errorCount.get();
+        }
+
+        public int getInFlight() {
+            return inFlight.get();
+        }
+
+        public long getTotalTime() {
+            return totalTime.get();
+        }
+
+        public long getMaxTime() {
+            return maxTime.get();
+        }
+
+        public LatencyHistogram getHistogram() {
+            return histogram;
+        }
+    }
+}
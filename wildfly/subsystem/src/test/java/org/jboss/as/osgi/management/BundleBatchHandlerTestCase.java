@@ -0,0 +1,189 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.osgi.management;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.FutureTask;
+
+import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
+import org.jboss.as.osgi.management.BundleBatchHandler.BatchContext;
+import org.jboss.as.osgi.parser.ModelConstants;
+import org.jboss.dmr.ModelNode;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleException;
+import org.osgi.framework.wiring.BundleRevision;
+import org.osgi.framework.wiring.BundleWire;
+import org.osgi.framework.wiring.BundleWiring;
+
+/**
+ * Tests of the dependency ordering and the batch start in {@link BundleBatchHandler}.
+ */
+public class BundleBatchHandlerTestCase {
+
+    @Test
+    public void testDependencyLevels() throws Exception {
+        Bundle bundleA = mockBundle("A");
+        Bundle bundleB = mockBundle("B", bundleA);
+        Bundle bundleC = mockBundle("C", bundleA, bundleB);
+        Bundle bundleD = mockBundle("D");
+        Bundle external = mockBundle("X");
+        Bundle bundleE = mockBundle("E", external);
+
+        Set<Bundle> bundles = new LinkedHashSet<Bundle>(Arrays.asList(bundleC, bundleB, bundleA, bundleD, bundleE));
+        List<Collection<Bundle>> levels = BundleBatchHandler.getDependencyLevels(bundles);
+        Assert.assertEquals(3, levels.size());
+        Assert.assertEquals(Arrays.asList(bundleA, bundleD, bundleE), levels.get(0));
+        Assert.assertEquals(Arrays.asList(bundleB), levels.get(1));
+        Assert.assertEquals(Arrays.asList(bundleC), levels.get(2));
+    }
+
+    @Test
+    public void testDependencyCycle() throws Exception {
+        Bundle bundleA = mockBundle("A");
+        Bundle bundleB = mockBundle("B", bundleA);
+        addWires(bundleA, bundleB);
+
+        Set<Bundle> bundles = new LinkedHashSet<Bundle>(Arrays.asList(bundleA, bundleB));
+        List<Collection<Bundle>> levels = BundleBatchHandler.getDependencyLevels(bundles);
+        int count = 0;
+        for (Collection<Bundle> level : levels) {
+            count += level.size();
+        }
+        Assert.assertEquals(2, count);
+    }
+
+    @Test
+    public void testUnresolvedBundle() throws Exception {
+        Bundle bundleA = Mockito.mock(Bundle.class);
+        List<Collection<Bundle>> levels = BundleBatchHandler.getDependencyLevels(new LinkedHashSet<Bundle>(Arrays.asList(bundleA)));
+        Assert.assertEquals(1, levels.size());
+        Assert.assertEquals(Arrays.asList(bundleA), levels.get(0));
+    }
+
+    @Test(timeout = 10000)
+    public void testStartInitiatesLevelBeforeAwait() throws Exception {
+        final Bundle bundleA = mockBundle("A");
+        final Bundle bundleB = mockBundle("B");
+        BatchContext batch = mockBatchContext(bundleA, bundleB);
+
+        // The activation of A completes only once the start of B has been initiated
+        final FutureTask<Bundle> futureA = new FutureTask<Bundle>(new Callable<Bundle>() {
+            @Override
+            public Bundle call() throws Exception {
+                return bundleA;
+            }
+        });
+        Mockito.doReturn(futureA).when(batch).startAsync(bundleA);
+        Mockito.doAnswer(new Answer<Object>() {
+            @Override
+            public Object answer(InvocationOnMock invocation) throws Throwable {
+                futureA.run();
+                return null;
+            }
+        }).when(batch).startAsync(bundleB);
+
+        ModelNode result = BundleBatchHandler.START_HANDLER.process(batch, new ModelNode(), Arrays.asList("A", "B"), 1);
+        Assert.assertEquals(2, result.asList().size());
+        assertOutcome(result.get(0), "A", ModelDescriptionConstants.SUCCESS);
+        assertOutcome(result.get(1), "B", ModelDescriptionConstants.SUCCESS);
+    }
+
+    @Test
+    public void testStartDuplicateSpecs() throws Exception {
+        Bundle bundleA = mockBundle("A");
+        BatchContext batch = mockBatchContext(bundleA);
+        Mockito.when(batch.findBundle("1")).thenReturn(bundleA);
+
+        ModelNode result = BundleBatchHandler.START_HANDLER.process(batch, new ModelNode(), Arrays.asList("A", "1"), 2);
+        Assert.assertEquals(2, result.asList().size());
+        assertOutcome(result.get(0), "A", ModelDescriptionConstants.SUCCESS);
+        assertOutcome(result.get(1), "1", ModelDescriptionConstants.SUCCESS);
+        Mockito.verify(batch, Mockito.times(1)).startAsync(bundleA);
+    }
+
+    @Test
+    public void testStartFailures() throws Exception {
+        Bundle bundleA = mockBundle("A");
+        Bundle bundleB = mockBundle("B");
+        Bundle fragment = mockBundle("F");
+        BundleRevision brev = Mockito.mock(BundleRevision.class);
+        Mockito.when(brev.getTypes()).thenReturn(BundleRevision.TYPE_FRAGMENT);
+        Mockito.when(fragment.adapt(BundleRevision.class)).thenReturn(brev);
+        BatchContext batch = mockBatchContext(bundleA, bundleB, fragment);
+        Mockito.doThrow(new BundleException("B failed")).when(batch).startAsync(bundleB);
+
+        ModelNode result = BundleBatchHandler.START_HANDLER.process(batch, new ModelNode(), Arrays.asList("A", "B", "F", "X"), 2);
+        Assert.assertEquals(4, result.asList().size());
+        assertOutcome(result.get(0), "A", ModelDescriptionConstants.SUCCESS);
+        assertOutcome(result.get(1), "B", ModelDescriptionConstants.FAILED);
+        Assert.assertEquals("B failed", result.get(1).get(ModelDescriptionConstants.FAILURE_DESCRIPTION).asString());
+        assertOutcome(result.get(2), "F", ModelDescriptionConstants.FAILED);
+        assertOutcome(result.get(3), "X", ModelDescriptionConstants.FAILED);
+        Mockito.verify(batch, Mockito.never()).startAsync(fragment);
+    }
+
+    private void assertOutcome(ModelNode outcome, String spec, String expected) {
+        Assert.assertEquals(spec, outcome.get(ModelConstants.BUNDLE).asString());
+        Assert.assertEquals(expected, outcome.get(ModelDescriptionConstants.OUTCOME).asString());
+    }
+
+    private BatchContext mockBatchContext(Bundle... bundles) {
+        BatchContext batch = Mockito.mock(BatchContext.class);
+        for (Bundle bundle : bundles) {
+            Mockito.when(batch.findBundle(bundle.toString())).thenReturn(bundle);
+        }
+        return batch;
+    }
+
+    private Bundle mockBundle(String name, Bundle... providers) {
+        Bundle bundle = Mockito.mock(Bundle.class, name);
+        Mockito.when(bundle.getState()).thenReturn(Bundle.RESOLVED);
+        BundleWiring wiring = Mockito.mock(BundleWiring.class);
+        Mockito.when(wiring.getBundle()).thenReturn(bundle);
+        Mockito.when(bundle.adapt(BundleWiring.class)).thenReturn(wiring);
+        addWires(bundle, providers);
+        return bundle;
+    }
+
+    private void addWires(Bundle bundle, Bundle... providers) {
+        List<BundleWire> wires = new ArrayList<BundleWire>();
+        for (Bundle provider : providers) {
+            BundleWiring providerWiring = provider.adapt(BundleWiring.class);
+            BundleWire wire = Mockito.mock(BundleWire.class);
+            Mockito.when(wire.getProviderWiring()).thenReturn(providerWiring);
+            wires.add(wire);
+        }
+        BundleWiring wiring = bundle.adapt(BundleWiring.class);
+        Mockito.when(wiring.getRequiredWires(null)).thenReturn(wires);
+    }
+}
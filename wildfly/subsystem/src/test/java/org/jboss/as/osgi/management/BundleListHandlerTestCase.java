@@ -0,0 +1,167 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.osgi.management;
+
+import java.util.List;
+
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
+import org.jboss.as.osgi.parser.ModelConstants;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceController;
+import org.jboss.msc.service.ServiceRegistry;
+import org.jboss.osgi.framework.Services;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.Version;
+import org.osgi.framework.wiring.BundleRevision;
+
+/**
+ * Tests of {@link BundleListHandler}.
+ */
+public class BundleListHandlerTestCase {
+
+    private ModelNode contextResult;
+    private OperationContext operationContext;
+
+    @Before
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    public void setUp() throws Exception {
+        BundleContext bundleContext = Mockito.mock(BundleContext.class);
+        Bundle[] bundles = new Bundle[] {
+                mockBundle(3, "org.acme.bar", Bundle.RESOLVED, true),
+                mockBundle(0, "system.bundle", Bundle.ACTIVE, false),
+                mockBundle(2, "org.acme.foo", Bundle.ACTIVE, false),
+                mockBundle(1, "org.other", Bundle.ACTIVE, false)
+        };
+        Mockito.when(bundleContext.getBundles()).thenReturn(bundles);
+
+        ServiceController scsc = Mockito.mock(ServiceController.class);
+        Mockito.when(scsc.getValue()).thenReturn(bundleContext);
+
+        ServiceRegistry sr = Mockito.mock(ServiceRegistry.class);
+        Mockito.when(sr.getService(Services.FRAMEWORK_CREATE)).thenReturn(scsc);
+
+        contextResult = new ModelNode();
+        operationContext = Mockito.mock(OperationContext.class);
+        Mockito.when(operationContext.getServiceRegistry(false)).thenReturn(sr);
+        Mockito.when(operationContext.getResult()).thenReturn(contextResult);
+        Mockito.when(operationContext.resolveExpressions(Mockito.any(ModelNode.class))).thenAnswer(new Answer<ModelNode>() {
+            @Override
+            public ModelNode answer(InvocationOnMock invocation) throws Throwable {
+                return ((ModelNode) invocation.getArguments()[0]).resolve();
+            }
+        });
+    }
+
+    @Test
+    public void testReadAllBundles() throws Exception {
+        BundleListHandler.INSTANCE.executeRuntimeStep(operationContext, getReadOperation());
+        List<ModelNode> result = contextResult.asList();
+        Assert.assertEquals(4, result.size());
+        for (int i = 0; i < result.size(); i++) {
+            Assert.assertEquals(i, result.get(i).get(ModelConstants.ID).asLong());
+        }
+
+        ModelNode model = result.get(3);
+        Assert.assertEquals("org.acme.bar", model.get(ModelConstants.SYMBOLIC_NAME).asString());
+        Assert.assertEquals("RESOLVED", model.get(ModelConstants.STATE).asString());
+        Assert.assertEquals("1.0.0", model.get(ModelConstants.VERSION).asString());
+        Assert.assertEquals("location3", model.get(ModelConstants.LOCATION).asString());
+        Assert.assertEquals(ModelConstants.FRAGMENT, model.get(ModelConstants.TYPE).asString());
+        Assert.assertEquals(ModelConstants.BUNDLE, result.get(2).get(ModelConstants.TYPE).asString());
+    }
+
+    @Test
+    public void testFilterBundles() throws Exception {
+        ModelNode readOp = getReadOperation();
+        readOp.get(ModelConstants.STATE).set("ACTIVE");
+        readOp.get(ModelConstants.SYMBOLIC_NAME_PREFIX).set("org.acme");
+        BundleListHandler.INSTANCE.executeRuntimeStep(operationContext, readOp);
+        List<ModelNode> result = contextResult.asList();
+        Assert.assertEquals(1, result.size());
+        Assert.assertEquals(2, result.get(0).get(ModelConstants.ID).asLong());
+    }
+
+    @Test
+    public void testPageBundles() throws Exception {
+        ModelNode readOp = getReadOperation();
+        readOp.get(ModelConstants.OFFSET).set(1);
+        readOp.get(ModelConstants.MAX_RESULTS).set(2);
+        BundleListHandler.INSTANCE.executeRuntimeStep(operationContext, readOp);
+        List<ModelNode> result = contextResult.asList();
+        Assert.assertEquals(2, result.size());
+        Assert.assertEquals(1, result.get(0).get(ModelConstants.ID).asLong());
+        Assert.assertEquals(2, result.get(1).get(ModelConstants.ID).asLong());
+    }
+
+    @Test
+    public void testInvalidParameters() throws Exception {
+        ModelNode readOp = getReadOperation();
+        readOp.get(ModelConstants.STATE).set("active");
+        assertOperationFailed(readOp);
+
+        readOp = getReadOperation();
+        readOp.get(ModelConstants.OFFSET).set(-1);
+        assertOperationFailed(readOp);
+
+        readOp = getReadOperation();
+        readOp.get(ModelConstants.MAX_RESULTS).set(-1);
+        assertOperationFailed(readOp);
+    }
+
+    private void assertOperationFailed(ModelNode readOp) {
+        try {
+            BundleListHandler.INSTANCE.executeRuntimeStep(operationContext, readOp);
+            Assert.fail("OperationFailedException expected");
+        } catch (OperationFailedException ex) {
+            // expected
+        }
+    }
+
+    private Bundle mockBundle(long bundleId, String symbolicName, int state, boolean fragment) {
+        Bundle bundle = Mockito.mock(Bundle.class);
+        Mockito.when(bundle.getBundleId()).thenReturn(bundleId);
+        Mockito.when(bundle.getSymbolicName()).thenReturn(symbolicName);
+        Mockito.when(bundle.getState()).thenReturn(state);
+        Mockito.when(bundle.getVersion()).thenReturn(Version.parseVersion("1.0.0"));
+        Mockito.when(bundle.getLocation()).thenReturn("location" + bundleId);
+        BundleRevision revision = Mockito.mock(BundleRevision.class);
+        Mockito.when(revision.getTypes()).thenReturn(fragment ? BundleRevision.TYPE_FRAGMENT : 0);
+        Mockito.when(bundle.adapt(BundleRevision.class)).thenReturn(revision);
+        return bundle;
+    }
+
+    private ModelNode getReadOperation() {
+        ModelNode readOp = new ModelNode();
+        readOp.get(ModelDescriptionConstants.OP_ADDR).add("subsystem", "osgi");
+        readOp.get(ModelDescriptionConstants.OP).set(ModelConstants.READ_BUNDLES);
+        return readOp;
+    }
+}
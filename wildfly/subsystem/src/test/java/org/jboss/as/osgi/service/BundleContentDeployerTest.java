@@ -0,0 +1,65 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.osgi.service;
+
+import java.io.File;
+import java.net.URL;
+
+import org.jboss.osgi.vfs.VirtualFile;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mockito;
+
+/**
+ * Tests of {@link BundleContentDeployer}.
+ */
+public class BundleContentDeployerTest {
+
+    @Rule
+    public TemporaryFolder tmpFolder = new TemporaryFolder();
+
+    @Test
+    public void testStorageFile() throws Exception {
+        File storageDir = tmpFolder.newFolder("osgi-store");
+        File bundleFile = new File(storageDir, "bundle-1/bundle-1.jar");
+        bundleFile.getParentFile().mkdirs();
+        bundleFile.createNewFile();
+        File otherFile = tmpFolder.newFile("other.jar");
+
+        BundleContentDeployer deployer = new BundleContentDeployer(null, null, storageDir);
+        Assert.assertEquals(bundleFile.getAbsoluteFile(), deployer.getStorageFile(mockRoot(bundleFile.toURI().toURL())));
+        Assert.assertNull(deployer.getStorageFile(mockRoot(otherFile.toURI().toURL())));
+        Assert.assertNull(deployer.getStorageFile(mockRoot(bundleFile.getParentFile().toURI().toURL())));
+
+        deployer = new BundleContentDeployer(null, null, null);
+        Assert.assertNull(deployer.getStorageFile(mockRoot(bundleFile.toURI().toURL())));
+    }
+
+    private VirtualFile mockRoot(URL streamURL) throws Exception {
+        VirtualFile root = Mockito.mock(VirtualFile.class);
+        Mockito.when(root.getStreamURL()).thenReturn(streamURL);
+        return root;
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.osgi.service;
+
+import org.jboss.as.osgi.service.ServletStatistics.AliasStatistics;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests of {@link LatencyHistogram} and {@link ServletStatistics}.
+ */
+public class LatencyHistogramTest {
+
+    @Test
+    public void testBucketBounds() throws Exception {
+        long[] values = new long[] { 0, 1, 7, 8, 15, 16, 17, 1000, 123456789, Long.MAX_VALUE };
+        for (long value : values) {
+            int index = LatencyHistogram.getBucketIndex(value);
+            Assert.assertTrue("Index of " + value, index < LatencyHistogram.BUCKET_COUNT);
+            Assert.assertTrue("Upper bound of " + value, LatencyHistogram.getBucketUpperBound(index) >= value);
+            if (index > 0) {
+                Assert.assertTrue("Lower bound of " + value, LatencyHistogram.getBucketUpperBound(index - 1) < value);
+            }
+        }
+    }
+
+    @Test
+    public void testPercentiles() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Assert.assertEquals(0, LatencyHistogram.getPercentile(histogram.getCounts(), 50));
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i * 1000);
+        }
+        long[] counts = histogram.getCounts();
+        assertWithinPrecision(50000, LatencyHistogram.getPercentile(counts, 50));
+        assertWithinPrecision(99000, LatencyHistogram.getPercentile(counts, 99));
+        assertWithinPrecision(100000, LatencyHistogram.getPercentile(counts, 100));
+
+        histogram.reset();
+        Assert.assertEquals(0, LatencyHistogram.getPercentile(histogram.getCounts(), 50));
+    }
+
+    @Test
+    public void testAliasStatistics() throws Exception {
+        ServletStatistics statistics = new ServletStatistics();
+        AliasStatistics stats = statistics.register("/foo", "bundle:1.0.0");
+        Assert.assertEquals(1, statistics.getAliasStatistics().size());
+
+        stats.requestStarted();
+        stats.requestStarted();
+        Assert.assertEquals(2, stats.getInFlight());
+        stats.requestCompleted(2000, false);
+        stats.requestCompleted(5000, true);
+        Assert.assertEquals(0, stats.getInFlight());
+        Assert.assertEquals(2, stats.getRequestCount());
+        Assert.assertEquals(1, stats.getErrorCount());
+        Assert.assertEquals(7000, stats.getTotalTime());
+        Assert.assertEquals(5000, stats.getMaxTime());
+
+        // A replaced registration is not removed by its predecessor
+        AliasStatistics replaced = statistics.register("/foo", "bundle:1.0.1");
+        statistics.unregister(stats);
+        Assert.assertSame(replaced, statistics.getAliasStatistics().iterator().next());
+        statistics.unregister(replaced);
+        Assert.assertTrue(statistics.getAliasStatistics().isEmpty());
+    }
+
+    private void assertWithinPrecision(long expected, long actual) {
+        Assert.assertTrue(expected + " <= " + actual, actual >= expected);
+        Assert.assertTrue(actual + " within precision of " + expected, actual - expected <= expected / LatencyHistogram.SUB_BUCKETS);
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.osgi.service;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+
+import org.jboss.modules.ModuleIdentifier;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests of {@link LayeredBundlePathIndex}.
+ */
+public class LayeredBundlePathIndexTest {
+
+    @Rule
+    public TemporaryFolder tmpFolder = new TemporaryFolder();
+
+    private File bundlesDir;
+
+    @Before
+    public void setUp() throws Exception {
+        bundlesDir = tmpFolder.newFolder("bundles");
+        createBundle("system/layers/base/test/shared/main", "base.jar");
+        createBundle("system/layers/base/test/base/main", "base.jar");
+        createBundle("system/layers/top/test/shared/main", "top.jar");
+        createBundle("system/add-ons/a/test/addon/main", "addon.jar");
+        createBundle("test/user/main", "user.jar");
+        writeLayersConf("top");
+    }
+
+    @Test
+    public void testLayerPrecedence() throws Exception {
+        LayeredBundlePathIndex index = new LayeredBundlePathIndex(bundlesDir);
+        assertEntry(index, "test.shared", "top.jar");
+        assertEntry(index, "test.base", "base.jar");
+        assertEntry(index, "test.addon", "addon.jar");
+        assertEntry(index, "test.user", "user.jar");
+        Assert.assertNull(index.getEntry(ModuleIdentifier.create("test.missing")));
+        Assert.assertEquals(LayeredBundlePathFactory.resolveLayeredBundlePath(bundlesDir), index.getBundlesPath());
+    }
+
+    @Test
+    public void testMultipleJars() throws Exception {
+        createBundle("system/layers/top/test/base/main", "one.jar");
+        createBundle("system/layers/top/test/base/main", "two.jar");
+        LayeredBundlePathIndex index = new LayeredBundlePathIndex(bundlesDir);
+        assertEntry(index, "test.base", "base.jar");
+    }
+
+    @Test
+    public void testValidate() throws Exception {
+        LayeredBundlePathIndex index = new LayeredBundlePathIndex(bundlesDir);
+        Assert.assertNull(index.getEntry(ModuleIdentifier.create("test.added")));
+        Assert.assertFalse(index.validate());
+
+        File parentDir = new File(bundlesDir, "system/layers/base/test");
+        long lastModified = parentDir.lastModified();
+        createBundle("system/layers/base/test/added/main", "added.jar");
+        parentDir.setLastModified(lastModified + 2000);
+
+        Assert.assertTrue(index.validate());
+        assertEntry(index, "test.added", "added.jar");
+    }
+
+    @Test
+    public void testRootSkipsLayers() throws Exception {
+        LayeredBundlePathIndex index = new LayeredBundlePathIndex(bundlesDir);
+        Assert.assertNull(index.getEntry(ModuleIdentifier.create("system.layers.base.test.shared")));
+        Assert.assertNull(index.getEntry(ModuleIdentifier.create("system.add-ons.a.test.addon")));
+    }
+
+    @Test
+    public void testValidateMissedPath() throws Exception {
+        LayeredBundlePathIndex index = new LayeredBundlePathIndex(bundlesDir);
+        Assert.assertNull(index.getEntry(ModuleIdentifier.create("test.added")));
+
+        // A change elsewhere in the tree is not seen by the validation of the missed path
+        File otherDir = new File(bundlesDir, "system/layers/base/test/base/main");
+        otherDir.setLastModified(otherDir.lastModified() + 2000);
+        Assert.assertFalse(index.validate("test/added/main"));
+
+        File parentDir = new File(bundlesDir, "system/layers/base/test");
+        long lastModified = parentDir.lastModified();
+        createBundle("system/layers/base/test/added/main", "added.jar");
+        parentDir.setLastModified(lastModified + 2000);
+
+        Assert.assertTrue(index.validate("test/added/main"));
+        assertEntry(index, "test.added", "added.jar");
+    }
+
+    @Test
+    public void testInvalidate() throws Exception {
+        LayeredBundlePathIndex index = new LayeredBundlePathIndex(bundlesDir);
+        assertEntry(index, "test.shared", "top.jar");
+        new File(bundlesDir, "system/layers/top/test/shared/main/top.jar").delete();
+        index.invalidate();
+        assertEntry(index, "test.shared", "base.jar");
+    }
+
+    @Test
+    public void testRemovedEntry() throws Exception {
+        LayeredBundlePathIndex index = new LayeredBundlePathIndex(bundlesDir);
+        assertEntry(index, "test.shared", "top.jar");
+        new File(bundlesDir, "system/layers/top/test/shared/main/top.jar").delete();
+        assertEntry(index, "test.shared", "base.jar");
+    }
+
+    @Test
+    public void testValidateHitPath() throws Exception {
+        LayeredBundlePathIndex index = new LayeredBundlePathIndex(bundlesDir);
+        assertEntry(index, "test.shared", "top.jar");
+
+        File entryDir = new File(bundlesDir, "system/layers/top/test/shared/main");
+        long lastModified = entryDir.lastModified();
+        new File(entryDir, "top.jar").renameTo(new File(entryDir, "top-2.jar"));
+        entryDir.setLastModified(lastModified + 2000);
+
+        Assert.assertTrue(index.validate("test/shared/main"));
+        assertEntry(index, "test.shared", "top-2.jar");
+    }
+
+    private void assertEntry(LayeredBundlePathIndex index, String name, String jarName) {
+        File entry = index.getEntry(ModuleIdentifier.create(name));
+        Assert.assertNotNull("Entry for " + name, entry);
+        Assert.assertEquals(jarName, entry.getName());
+    }
+
+    private void createBundle(String path, String jarName) throws IOException {
+        File dir = new File(bundlesDir, path);
+        if (!dir.mkdirs() && !dir.isDirectory()) {
+            throw new IllegalStateException("Cannot create " + dir);
+        }
+        new File(dir, jarName).createNewFile();
+    }
+
+    private void writeLayersConf(String layers) throws IOException {
+        File layersConf = new File(bundlesDir, "layers.conf");
+        FileWriter fw = new FileWriter(layersConf);
+        try {
+            fw.write("layers=" + layers + "\n");
+        } finally {
+            fw.close();
+        }
+    }
+}
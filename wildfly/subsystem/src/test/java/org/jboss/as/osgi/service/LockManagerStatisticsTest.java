@@ -0,0 +1,58 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.osgi.service;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.osgi.service.LockManagerStatistics.MethodStatistics;
+import org.jboss.osgi.framework.spi.LockManager.Method;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests of {@link LockManagerStatistics}.
+ */
+public class LockManagerStatisticsTest {
+
+    @Test
+    public void testRecord() throws Exception {
+        LockManagerStatistics statistics = new LockManagerStatistics();
+        statistics.recordWait(Method.START, 1000);
+        statistics.recordWait(Method.START, TimeUnit.MILLISECONDS.toNanos(5));
+        statistics.recordHold(Method.START, 300);
+        statistics.recordHold(Method.START, 200);
+
+        MethodStatistics stats = statistics.getStatistics(Method.START);
+        Assert.assertEquals(2, stats.getLockCount());
+        Assert.assertEquals(1, stats.getContendedCount());
+        Assert.assertEquals(TimeUnit.MILLISECONDS.toNanos(5) + 1000, stats.getTotalWaitTime());
+        Assert.assertEquals(TimeUnit.MILLISECONDS.toNanos(5), stats.getMaxWaitTime());
+        Assert.assertEquals(500, stats.getTotalHoldTime());
+        Assert.assertEquals(300, stats.getMaxHoldTime());
+        Assert.assertEquals(0, statistics.getStatistics(Method.INSTALL).getLockCount());
+
+        statistics.reset();
+        Assert.assertEquals(0, stats.getLockCount());
+        Assert.assertEquals(0, stats.getMaxHoldTime());
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.osgi.service;
+
+import java.io.File;
+
+import org.jboss.modules.ModuleIdentifier;
+import org.jboss.osgi.metadata.OSGiMetaData;
+import org.jboss.osgi.metadata.OSGiMetaDataBuilder;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.osgi.framework.Constants;
+import org.osgi.framework.Version;
+
+/**
+ * Tests of {@link OSGiMetaDataCache}.
+ */
+public class OSGiMetaDataCacheTest {
+
+    @Rule
+    public TemporaryFolder tmpFolder = new TemporaryFolder();
+
+    private File cacheDir;
+
+    @Before
+    public void setUp() throws Exception {
+        cacheDir = new File(tmpFolder.getRoot(), "osgi-metadata");
+    }
+
+    @Test
+    public void testPersistentEntry() throws Exception {
+        ModuleIdentifier moduleId = ModuleIdentifier.create("org.acme.foo");
+        OSGiMetaDataCache cache = new OSGiMetaDataCache(cacheDir, 10);
+        Assert.assertNull(cache.get(moduleId, "stamp1"));
+        cache.put(moduleId, "stamp1", getMetaData("org.acme.foo"));
+
+        cache = new OSGiMetaDataCache(cacheDir, 10);
+        OSGiMetaData metadata = cache.get(moduleId, "stamp1");
+        Assert.assertNotNull(metadata);
+        Assert.assertEquals("org.acme.foo", metadata.getBundleSymbolicName());
+        Assert.assertEquals(Version.parseVersion("1.0.0"), metadata.getBundleVersion());
+    }
+
+    @Test
+    public void testMultiClauseHeaders() throws Exception {
+        ModuleIdentifier moduleId = ModuleIdentifier.create("org.acme.foo");
+        OSGiMetaDataBuilder builder = OSGiMetaDataBuilder.createBuilder("org.acme.foo", Version.parseVersion("1.0.0"));
+        builder.addExportPackages("org.acme.api;version=1.0", "org.acme.spi;version=1.0;uses:=\"org.acme.api,org.acme.util\"");
+        builder.addImportPackages("org.acme.util;version=\"[1.0,2.0)\"", "javax.inject;resolution:=optional");
+        OSGiMetaData original = builder.getOSGiMetaData();
+
+        OSGiMetaDataCache cache = new OSGiMetaDataCache(cacheDir, 10);
+        cache.put(moduleId, "stamp1", original);
+
+        cache = new OSGiMetaDataCache(cacheDir, 10);
+        OSGiMetaData metadata = cache.get(moduleId, "stamp1");
+        Assert.assertNotNull(metadata);
+        Assert.assertEquals(original.getHeader(Constants.EXPORT_PACKAGE), metadata.getHeader(Constants.EXPORT_PACKAGE));
+        Assert.assertEquals(original.getHeader(Constants.IMPORT_PACKAGE), metadata.getHeader(Constants.IMPORT_PACKAGE));
+        Assert.assertEquals(2, metadata.getExportPackages().size());
+        Assert.assertEquals(2, metadata.getImportPackages().size());
+    }
+
+    @Test
+    public void testStaleEntry() throws Exception {
+        ModuleIdentifier moduleId = ModuleIdentifier.create("org.acme.foo");
+        OSGiMetaDataCache cache = new OSGiMetaDataCache(cacheDir, 10);
+        cache.put(moduleId, "stamp1", getMetaData("org.acme.foo"));
+        Assert.assertNull(cache.get(moduleId, "stamp2"));
+        Assert.assertFalse(cache.getCacheFile(moduleId).exists());
+    }
+
+    @Test
+    public void testEviction() throws Exception {
+        ModuleIdentifier moduleA = ModuleIdentifier.create("org.acme.a");
+        ModuleIdentifier moduleB = ModuleIdentifier.create("org.acme.b");
+        ModuleIdentifier moduleC = ModuleIdentifier.create("org.acme.c");
+        OSGiMetaDataCache cache = new OSGiMetaDataCache(cacheDir, 2);
+        cache.put(moduleA, "stamp", getMetaData("org.acme.a"));
+        cache.put(moduleB, "stamp", getMetaData("org.acme.b"));
+        Assert.assertNotNull(cache.get(moduleA, "stamp"));
+        cache.put(moduleC, "stamp", getMetaData("org.acme.c"));
+
+        Assert.assertTrue(cache.getCacheFile(moduleA).exists());
+        Assert.assertFalse(cache.getCacheFile(moduleB).exists());
+        Assert.assertTrue(cache.getCacheFile(moduleC).exists());
+    }
+
+    private OSGiMetaData getMetaData(String symbolicName) {
+        OSGiMetaDataBuilder builder = OSGiMetaDataBuilder.createBuilder(symbolicName, Version.parseVersion("1.0.0"));
+        builder.addExportPackages("org.acme.api");
+        return builder.getOSGiMetaData();
+    }
+}
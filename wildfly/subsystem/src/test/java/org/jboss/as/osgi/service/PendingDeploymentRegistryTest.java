@@ -0,0 +1,101 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.osgi.service;
+
+import org.jboss.osgi.deployment.deployer.Deployment;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+/**
+ * Tests of {@link PendingDeploymentRegistry}.
+ */
+public class PendingDeploymentRegistryTest {
+
+    @Test
+    public void testPutRemove() throws Exception {
+        PendingDeploymentRegistry registry = new PendingDeploymentRegistry();
+        Deployment dep = Mockito.mock(Deployment.class);
+        registry.putDeployment("a.jar", dep);
+        Assert.assertSame(dep, registry.getDeployment("a.jar"));
+        Assert.assertNull(registry.getDeployment("b.jar"));
+        Assert.assertEquals(1, registry.getPendingCount());
+        Assert.assertSame(dep, registry.removeDeployment("a.jar"));
+        Assert.assertNull(registry.removeDeployment("a.jar"));
+        Assert.assertEquals(0, registry.getPendingCount());
+    }
+
+    @Test
+    public void testPurgeExpired() throws Exception {
+        final PendingDeploymentRegistry registry = new PendingDeploymentRegistry();
+        registry.setTimeout(1000);
+
+        // An entry that was left behind by a terminated deployer thread
+        Thread deployer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                registry.putDeployment("a.jar", Mockito.mock(Deployment.class));
+            }
+        });
+        deployer.start();
+        deployer.join();
+        long now = System.currentTimeMillis();
+
+        registry.purgeExpired(now + 500);
+        Assert.assertEquals(1, registry.getPendingCount());
+
+        registry.purgeExpired(now + 2000);
+        Assert.assertNull(registry.getDeployment("a.jar"));
+    }
+
+    @Test
+    public void testNoExpiryWhileDeploying() throws Exception {
+        PendingDeploymentRegistry registry = new PendingDeploymentRegistry();
+        registry.setTimeout(10);
+        Deployment dep = Mockito.mock(Deployment.class);
+        registry.putDeployment("a.jar", dep);
+        Thread.sleep(50);
+
+        // The deploy of the current thread is still running
+        registry.purgeExpired(System.currentTimeMillis());
+        Assert.assertSame(dep, registry.getDeployment("a.jar"));
+        Assert.assertEquals(1, registry.getPendingCount());
+        Assert.assertSame(dep, registry.removeDeployment("a.jar"));
+    }
+
+    @Test
+    public void testExpiredNotCounted() throws Exception {
+        final PendingDeploymentRegistry registry = new PendingDeploymentRegistry();
+        registry.setTimeout(10);
+        Thread deployer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                registry.putDeployment("a.jar", Mockito.mock(Deployment.class));
+            }
+        });
+        deployer.start();
+        deployer.join();
+        Thread.sleep(50);
+        Assert.assertEquals(0, registry.getPendingCount());
+    }
+}